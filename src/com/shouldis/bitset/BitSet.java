@@ -1,6 +1,13 @@
 package com.shouldis.bitset;
 
+import java.io.EOFException;
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
 import java.util.Objects;
 import java.util.stream.IntStream;
@@ -30,6 +37,11 @@ import com.shouldis.bitset.parallel.LiveBiterator;
  * impacts performance because of the overhead created by the call stack. When
  * no extra functionality or modified behavior is needed, {@link InlineBitSet}
  * performs the same operations, but "hot" methods are made faster by inlining.
+ * Bulk operations such as {@link #and(BitSet)} and {@link #population()} made
+ * between {@link BitSet}s, {@link InlineBitSet}s and {@link ImmutableBitSet}s
+ * operate directly on {@link #words} in simple loops the VM is able to
+ * vectorize, falling back to {@link #getWord(int)} and
+ * {@link #setWord(int, long)} for all other implementations.
  * <p>
  * If {@link #size} isn't a multiple of 64, there will be hanging bits that
  * exist on the end of the last long within {@link #words}, which are not
@@ -72,6 +84,35 @@ public class BitSet implements Serializable {
 	 */
 	protected static final int LOG_2_SIZE = 6;
 
+	/**
+	 * Value beginning the binary format written by
+	 * {@link #writeTo(WritableByteChannel, boolean)}.
+	 */
+	private static final int FORMAT_MAGIC = 0x42495446;
+
+	/**
+	 * The version of the binary format written by
+	 * {@link #writeTo(WritableByteChannel, boolean)}.
+	 */
+	private static final byte FORMAT_VERSION = 1;
+
+	/**
+	 * Flag within the binary format marking words as run-length encoded.
+	 */
+	private static final byte RUN_LENGTH_FLAG = 1;
+
+	/**
+	 * The number of bytes in the header of the binary format: the magic number,
+	 * version, flags, 2 reserved bytes, and {@link #size}.
+	 */
+	private static final int HEADER_BYTES = 12;
+
+	/**
+	 * The largest capacity of the buffer allocated to transfer words to and from
+	 * channels when no buffer is supplied.
+	 */
+	private static final int TRANSFER_BYTES = 1 << 16;
+
 	/**
 	 * The number of indices accessible by this {@link BitSet}. Indices <b>0</b>
 	 * through <b>size -1</b> are accessible.
@@ -80,18 +121,33 @@ public class BitSet implements Serializable {
 
 	/**
 	 * The number of long words contained by this {@link BitSet}. Equal to
-	 * ceiling({@link #size} / 64) and {@link #words}.length.
+	 * ceiling({@link #size} / 64), and to {@link #words}.length unless another
+	 * array was supplied through {@link #BitSet(int, long[])}.
 	 */
 	public final int wordCount;
 
 	/**
 	 * Array holding the long words whose bits are manipulated. Has length
-	 * ceiling({@link #size} / 64). Though this has protected visibility, using
+	 * ceiling({@link #size} / 64), unless another array was supplied through
+	 * {@link #BitSet(int, long[])}. Though this has protected visibility, using
 	 * methods such as {@link #getWord(int)}, {@link #setWord(int, long)},
 	 * {@link #andWord(int, long)} is preferred over direct access.
 	 */
 	protected final long[] words;
 
+	/**
+	 * Whether this {@link BitSet} keeps its population current as words are
+	 * modified, allowing {@link #population()} and {@link #density()} to be
+	 * calculated in constant time.
+	 */
+	public final boolean tracked;
+
+	/**
+	 * The number of <i>live</i> bits within {@link #words}, maintained through
+	 * {@link #track(long, long)} when {@link #tracked} is {@code true}.
+	 */
+	private int count;
+
 	/**
 	 * Creates a {@link BitSet} with the specified number of bits indices. Indices 0
 	 * through <b>size</b> -1 will be accessible. All bits are initially in the
@@ -101,16 +157,64 @@ public class BitSet implements Serializable {
 	 * @throws IllegalArgumentException if <b>size</b> is less than 0.
 	 */
 	public BitSet(final int size) {
-		int wordCount = BitSet.divideSize(size);
-		if (wordCount < 0) {
-			throw new IllegalArgumentException(Integer.toString(size));
-		}
-		if (BitSet.modSize(size) > 0) {
-			wordCount++;
-		}
+		this(size, false);
+	}
+
+	/**
+	 * Creates a {@link BitSet} with the specified number of bits indices, which
+	 * will keep its population current on every modification if <b>tracked</b> is
+	 * {@code true}. Indices 0 through <b>size</b> -1 will be accessible. All bits
+	 * are initially in the <i>dead</i> state.
+	 * 
+	 * @param size    the number of bit indices that this {@link BitSet} will hold.
+	 * @param tracked whether {@link #population()} should be maintained as words
+	 *                are modified, rather than calculated on each call.
+	 * @throws IllegalArgumentException if <b>size</b> is less than 0.
+	 * @see #tracked
+	 */
+	public BitSet(final int size, final boolean tracked) {
+		this.size = size;
+		this.wordCount = BitSet.countWords(size);
+		this.words = new long[wordCount];
+		this.tracked = tracked;
+	}
+
+	/**
+	 * Creates a {@link BitSet} with the specified number of bit indices, using the
+	 * specified array <b>words</b> as {@link #words}. Implementations that store
+	 * their words elsewhere, overriding {@link #getWord(int)} and
+	 * {@link #setWord(int, long)}, may supply an empty array.
+	 * 
+	 * @param size  the number of bit indices that this {@link BitSet} will hold.
+	 * @param words the array to be used as {@link #words}.
+	 * @throws IllegalArgumentException if <b>size</b> is less than 0.
+	 * @throws NullPointerException     if <b>words</b> is null.
+	 */
+	protected BitSet(final int size, final long[] words) {
+		this(size, false, words);
+	}
+
+	/**
+	 * Creates a {@link BitSet} with the specified number of bit indices, using the
+	 * specified array <b>words</b> as {@link #words}, which will keep its
+	 * population current on every modification if <b>tracked</b> is
+	 * {@code true}. Implementations that arrange their words differently within
+	 * <b>words</b>, overriding {@link #getWord(int)} and
+	 * {@link #setWord(int, long)}, may supply an array of any length.
+	 * 
+	 * @param size    the number of bit indices that this {@link BitSet} will hold.
+	 * @param tracked whether {@link #population()} should be maintained as words
+	 *                are modified, rather than calculated on each call.
+	 * @param words   the array to be used as {@link #words}.
+	 * @throws IllegalArgumentException if <b>size</b> is less than 0.
+	 * @throws NullPointerException     if <b>words</b> is null.
+	 * @see #tracked
+	 */
+	protected BitSet(final int size, final boolean tracked, final long[] words) {
 		this.size = size;
-		this.wordCount = wordCount;
-		words = new long[wordCount];
+		this.wordCount = BitSet.countWords(size);
+		this.words = Objects.requireNonNull(words);
+		this.tracked = tracked;
 	}
 
 	/**
@@ -189,7 +293,8 @@ public class BitSet implements Serializable {
 	 * Changes the state of all bits in the specified range [<b>from</b>, <b>to</b>)
 	 * to the <i>live</i> state. No action is taken if <b>from</b> is greater than
 	 * or equal to <b>to</b>. {@link ConcurrentBitSet} will only perform this
-	 * atomically on each word within the range individually.
+	 * atomically on each word within the range individually, unless it is
+	 * {@link ConcurrentBitSet#consistent}.
 	 * 
 	 * @param from (inclusive) the index of the first bit to be changed to the
 	 *             <i>live</i> state.
@@ -232,7 +337,8 @@ public class BitSet implements Serializable {
 	 * Changes the state of all bits in the specified range [<b>from</b>, <b>to</b>)
 	 * to the <i>dead</i> state. No action is taken if <b>from</b> is greater than
 	 * or equal to <b>to</b>. {@link ConcurrentBitSet} will only perform this
-	 * atomically on each word within the range individually.
+	 * atomically on each word within the range individually, unless it is
+	 * {@link ConcurrentBitSet#consistent}.
 	 * 
 	 * @param from (inclusive) the index of the first bit to be cleared.
 	 * @param to   (exclusive) the end of the range of bits to be cleared.
@@ -273,7 +379,8 @@ public class BitSet implements Serializable {
 	 * Changes the state of all bits in the specified range [<b>from</b>, <b>to</b>)
 	 * to their opposites through an {@code XOR} operation. No action is taken if
 	 * <b>from</b> is greater than or equal to <b>to</b>. {@link ConcurrentBitSet}
-	 * will only perform this atomically on each word within the range individually.
+	 * will only perform this atomically on each word within the range
+	 * individually, unless it is {@link ConcurrentBitSet#consistent}.
 	 * 
 	 * @param from (inclusive) the index of the first bit to flip.
 	 * @param to   (exclusive) the end of the range of bits to flip.
@@ -338,6 +445,141 @@ public class BitSet implements Serializable {
 		return true;
 	}
 
+	/**
+	 * Changes the state of the bits at each of the <b>len</b> indices within
+	 * <b>indices</b> beginning at <b>off</b> to the <i>live</i> state. Consecutive
+	 * indices belonging to the same word are combined into a single
+	 * {@link #orWord(int, long)}, so sorted indices require only one operation
+	 * per word touched.
+	 * 
+	 * @param indices the array containing the indices of the bits to change to
+	 *                the <i>live</i> state.
+	 * @param off     the position of the first index within <b>indices</b>.
+	 * @param len     the number of indices to read from <b>indices</b>.
+	 * @throws IndexOutOfBoundsException if <b>off</b> and <b>len</b> are outside
+	 *                                   of <b>indices</b>, or any index is
+	 *                                   negative or greater than or equal to
+	 *                                   {@link #size}, in which case no bits are
+	 *                                   changed.
+	 * @throws NullPointerException      if <b>indices</b> is null.
+	 */
+	public void set(final int[] indices, final int off, final int len) {
+		combine(indices, off, len, false, (wordIndex, mask) -> {
+			orWord(wordIndex, mask);
+			return 0;
+		});
+	}
+
+	/**
+	 * Changes the state of the bits at each of the <b>len</b> indices within
+	 * <b>indices</b> beginning at <b>off</b> to the <i>dead</i> state. Consecutive
+	 * indices belonging to the same word are combined into a single
+	 * {@link #andWord(int, long)}, so sorted indices require only one operation
+	 * per word touched.
+	 * 
+	 * @param indices the array containing the indices of the bits to clear.
+	 * @param off     the position of the first index within <b>indices</b>.
+	 * @param len     the number of indices to read from <b>indices</b>.
+	 * @throws IndexOutOfBoundsException if <b>off</b> and <b>len</b> are outside
+	 *                                   of <b>indices</b>, or any index is
+	 *                                   negative or greater than or equal to
+	 *                                   {@link #size}, in which case no bits are
+	 *                                   changed.
+	 * @throws NullPointerException      if <b>indices</b> is null.
+	 */
+	public void clear(final int[] indices, final int off, final int len) {
+		combine(indices, off, len, false, (wordIndex, mask) -> {
+			andWord(wordIndex, ~mask);
+			return 0;
+		});
+	}
+
+	/**
+	 * Changes the state of the bits at each of the <b>len</b> indices within
+	 * <b>indices</b> beginning at <b>off</b> to their opposites, flipping a bit
+	 * once for each time its index appears. Consecutive indices belonging to the
+	 * same word are combined into a single {@link #xOrWord(int, long)}, so sorted
+	 * indices require only one operation per word touched.
+	 * 
+	 * @param indices the array containing the indices of the bits to flip.
+	 * @param off     the position of the first index within <b>indices</b>.
+	 * @param len     the number of indices to read from <b>indices</b>.
+	 * @throws IndexOutOfBoundsException if <b>off</b> and <b>len</b> are outside
+	 *                                   of <b>indices</b>, or any index is
+	 *                                   negative or greater than or equal to
+	 *                                   {@link #size}, in which case no bits are
+	 *                                   changed.
+	 * @throws NullPointerException      if <b>indices</b> is null.
+	 */
+	public void flip(final int[] indices, final int off, final int len) {
+		combine(indices, off, len, true, (wordIndex, mask) -> {
+			xOrWord(wordIndex, mask);
+			return 0;
+		});
+	}
+
+	/**
+	 * Ensures that the bits at each of the <b>len</b> indices within
+	 * <b>indices</b> beginning at <b>off</b> are in the <i>live</i> state,
+	 * counting those which were not. Consecutive indices belonging to the same
+	 * word are combined into a single {@link #getAndOrWord(int, long)}, so sorted
+	 * indices require only one operation per word touched.
+	 * 
+	 * @param indices the array containing the indices of the bits to change to
+	 *                the <i>live</i> state.
+	 * @param off     the position of the first index within <b>indices</b>.
+	 * @param len     the number of indices to read from <b>indices</b>.
+	 * @return the number of bits that were changed to the <i>live</i> state.
+	 * @throws IndexOutOfBoundsException if <b>off</b> and <b>len</b> are outside
+	 *                                   of <b>indices</b>, or any index is
+	 *                                   negative or greater than or equal to
+	 *                                   {@link #size}, in which case no bits are
+	 *                                   changed.
+	 * @throws NullPointerException      if <b>indices</b> is null.
+	 */
+	public int add(final int[] indices, final int off, final int len) {
+		return combine(indices, off, len, false,
+				(wordIndex, mask) -> Long.bitCount(mask & ~getAndOrWord(wordIndex, mask)));
+	}
+
+	/**
+	 * Validates each of the <b>len</b> indices within <b>indices</b> beginning at
+	 * <b>off</b>, then combines consecutive indices belonging to the same word
+	 * into a single mask, applying the specified <b>operation</b> once per mask.
+	 * 
+	 * @param indices   the array containing the indices of the bits to change.
+	 * @param off       the position of the first index within <b>indices</b>.
+	 * @param len       the number of indices to read from <b>indices</b>.
+	 * @param toggle    whether indices are combined by {@code XOR} rather than
+	 *                  {@code OR}, so that repeated indices cancel out.
+	 * @param operation the {@link MaskOperation} to apply to each word.
+	 * @return the sum of the results of <b>operation</b>.
+	 * @throws IndexOutOfBoundsException if <b>off</b> and <b>len</b> are outside
+	 *                                   of <b>indices</b>, or any index is
+	 *                                   negative or greater than or equal to
+	 *                                   {@link #size}.
+	 * @throws NullPointerException      if <b>indices</b> is null.
+	 */
+	private int combine(final int[] indices, final int off, final int len, final boolean toggle,
+			final MaskOperation operation) {
+		Objects.checkFromIndexSize(off, len, indices.length);
+		final int end = off + len;
+		for (int i = off; i < end; i++) {
+			Objects.checkIndex(indices[i], size);
+		}
+		int result = 0;
+		int i = off;
+		while (i < end) {
+			final int wordIndex = BitSet.divideSize(indices[i]);
+			long mask = BitSet.bitMask(indices[i++]);
+			while (i < end && BitSet.divideSize(indices[i]) == wordIndex) {
+				mask = toggle ? mask ^ BitSet.bitMask(indices[i++]) : mask | BitSet.bitMask(indices[i++]);
+			}
+			result += operation.apply(wordIndex, mask);
+		}
+		return result;
+	}
+
 	/**
 	 * Returns the long word at the specified <b>wordIndex</b> within
 	 * {@link #words}.
@@ -362,9 +604,34 @@ public class BitSet implements Serializable {
 	 *                                        range [0, {@link #wordCount}).
 	 */
 	public void setWord(final int wordIndex, final long word) {
+		if (tracked) {
+			track(words[wordIndex], word);
+		}
 		words[wordIndex] = word;
 	}
 
+	/**
+	 * Adjusts the tracked population to account for a word changing from
+	 * <b>previous</b> to <b>word</b>. Called by implementations after modifying a
+	 * word while {@link #tracked} is {@code true}.
+	 * 
+	 * @param previous the value of the word before it was modified.
+	 * @param word     the value of the word after it was modified.
+	 */
+	protected void track(final long previous, final long word) {
+		count += Long.bitCount(word) - Long.bitCount(previous);
+	}
+
+	/**
+	 * Returns the tracked population of this {@link BitSet}, used by
+	 * {@link #population()} when {@link #tracked} is {@code true}.
+	 * 
+	 * @return the number of <i>live</i> bits, including hanging bits.
+	 */
+	protected int trackedPopulation() {
+		return count;
+	}
+
 	/**
 	 * Changes the long word at <b>wordIndex</b> within {@link #words} to the result
 	 * of an {@code AND} operation between the current value at the specified
@@ -399,6 +666,25 @@ public class BitSet implements Serializable {
 		setWord(wordIndex, getWord(wordIndex) | mask);
 	}
 
+	/**
+	 * Performs the same operation as {@link #orWord(int, long)}, returning the
+	 * value of the word before it was changed. <br>
+	 * {@code previous = words[wordIndex]; words[wordIndex] |= mask;}
+	 * 
+	 * @param wordIndex the index within {@link #words} to perform the {@code OR}
+	 *                  operation upon.
+	 * @param mask      the mask to use in the {@code OR} operation on the current
+	 *                  value at the specified <b>wordIndex</b>.
+	 * @return the value of the word before the {@code OR} operation.
+	 * @throws ArrayIndexOutOfBoundsException if <b>wordIndex</b> is outside of the
+	 *                                        range [0, {@link #wordCount}).
+	 */
+	public long getAndOrWord(final int wordIndex, final long mask) {
+		final long previous = getWord(wordIndex);
+		setWord(wordIndex, previous | mask);
+		return previous;
+	}
+
 	/**
 	 * Changes the long word at <b>wordIndex</b> within {@link #words} to the result
 	 * of an {@code XOR} operation between the current value at the specified
@@ -558,7 +844,7 @@ public class BitSet implements Serializable {
 	 * @param index (inclusive) the first index to check.
 	 * @return the index of the next <i>live</i> bit, or -1 if none were found.
 	 */
-	public final int nextLive(final int index) {
+	public int nextLive(final int index) {
 		int wordIndex = BitSet.divideSize(index);
 		if (wordIndex >= wordCount || wordIndex < 0) {
 			return -1;
@@ -585,7 +871,7 @@ public class BitSet implements Serializable {
 	 * @param index (inclusive) the first index to check.
 	 * @return the index of the next <i>dead</i> bit, or -1 if none were found.
 	 */
-	public final int nextDead(final int index) {
+	public int nextDead(final int index) {
 		int wordIndex = BitSet.divideSize(index);
 		if (wordIndex >= wordCount || wordIndex < 0) {
 			return -1;
@@ -626,7 +912,7 @@ public class BitSet implements Serializable {
 	 * @param index (inclusive) the first index to check.
 	 * @return the index of the next <i>live</i> bit, or -1 if none were found.
 	 */
-	public final int lastLive(final int index) {
+	public int lastLive(final int index) {
 		int wordIndex = BitSet.divideSize(index);
 		if (wordIndex >= wordCount || wordIndex < 0) {
 			return -1;
@@ -651,7 +937,7 @@ public class BitSet implements Serializable {
 	 * @param index (inclusive) the first index to check.
 	 * @return the index of the next <i>dead</i> bit, or -1 if none were found.
 	 */
-	public final int lastDead(final int index) {
+	public int lastDead(final int index) {
 		int wordIndex = BitSet.divideSize(index);
 		if (wordIndex >= wordCount || wordIndex < 0) {
 			return -1;
@@ -696,6 +982,97 @@ public class BitSet implements Serializable {
 		return new LiveBiterator(this).stream();
 	}
 
+	/**
+	 * Creates an array containing the indices of all <i>live</i> bits within this
+	 * {@link BitSet} in ascending order, sized by {@link #population()} rather
+	 * than grown as indices are found. Hanging bits are excluded.
+	 * 
+	 * @return an array of the bit indices in the <i>live</i> state.
+	 */
+	public final int[] toArray() {
+		final int[] array = new int[population()];
+		final int count = decode(0, array, 0, array.length);
+		return count == array.length ? array : Arrays.copyOf(array, count);
+	}
+
+	/**
+	 * Writes the indices of all <i>live</i> bits within this {@link BitSet} in
+	 * ascending order into the specified array <b>dst</b>, beginning at position
+	 * <b>offset</b>. If there isn't enough room in <b>dst</b>, only the lowest
+	 * indices that fit are written, and {@link #drainLive(int, int[])} can be
+	 * used to continue. Hanging bits are excluded.
+	 * 
+	 * @param dst    the array to write the indices to.
+	 * @param offset the position within <b>dst</b> of the first index written.
+	 * @return the number of indices written.
+	 * @throws IndexOutOfBoundsException if <b>offset</b> is negative or greater
+	 *                                   than <b>dst</b>.length.
+	 * @throws NullPointerException      if <b>dst</b> is null.
+	 */
+	public final int toArray(final int[] dst, final int offset) {
+		Objects.checkFromToIndex(offset, dst.length, dst.length);
+		return decode(0, dst, offset, dst.length - offset);
+	}
+
+	/**
+	 * Writes the indices of <i>live</i> bits within this {@link BitSet} starting
+	 * at the specified <b>from</b> in ascending order into <b>buffer</b>, until
+	 * either <b>buffer</b> is full or no <i>live</i> bits remain. Decoding can be
+	 * resumed by calling again with one more than the last index written. Hanging
+	 * bits are excluded.
+	 * 
+	 * @param from   (inclusive) the index of the first bit to check.
+	 * @param buffer the array to write the indices to, beginning at position 0.
+	 * @return the number of indices written, which is less than
+	 *         <b>buffer</b>.length only if no <i>live</i> bits remain.
+	 * @throws IndexOutOfBoundsException if <b>from</b> is negative or greater
+	 *                                   than {@link #size}.
+	 * @throws NullPointerException      if <b>buffer</b> is null.
+	 */
+	public final int drainLive(final int from, final int[] buffer) {
+		Objects.checkFromToIndex(from, size, size);
+		return decode(from, buffer, 0, buffer.length);
+	}
+
+	/**
+	 * Writes up to <b>length</b> indices of <i>live</i> bits starting at the
+	 * specified <b>from</b> into <b>dst</b>, beginning at position <b>offset</b>.
+	 * The lowest <i>live</i> bit of each word is extracted and cleared until the
+	 * word is exhausted.
+	 * 
+	 * @param from   (inclusive) the index of the first bit to check.
+	 * @param dst    the array to write the indices to.
+	 * @param offset the position within <b>dst</b> of the first index written.
+	 * @param length the maximum number of indices to write.
+	 * @return the number of indices written.
+	 */
+	private int decode(final int from, final int[] dst, final int offset, final int length) {
+		if (from >= size || length == 0) {
+			return 0;
+		}
+		final int last = wordCount - 1;
+		int wordIndex = BitSet.divideSize(from);
+		long word = getWord(wordIndex) & (LIVE << from);
+		int count = 0;
+		while (true) {
+			if (wordIndex == last) {
+				word &= LIVE >>> -size;
+			}
+			final int base = BitSet.multiplySize(wordIndex);
+			while (word != DEAD) {
+				if (count == length) {
+					return count;
+				}
+				dst[offset + count++] = base + Long.numberOfTrailingZeros(word);
+				word &= word - 1;
+			}
+			if (++wordIndex > last) {
+				return count;
+			}
+			word = getWord(wordIndex);
+		}
+	}
+
 	/**
 	 * Creates a parallel-safe {@link IntStream} consisting of the indices of all
 	 * <i>dead</i> bits within this {@link BitSet} using {@link DeadBiterator}.
@@ -711,6 +1088,10 @@ public class BitSet implements Serializable {
 	 * Transforms each bit in this {@link BitSet} to the <i>live</i> state.
 	 */
 	public final void fill() {
+		if (writesArray()) {
+			Arrays.fill(words, 0, wordCount, LIVE);
+			return;
+		}
 		for (int i = 0; i < wordCount; i++) {
 			fillWord(i);
 		}
@@ -720,6 +1101,10 @@ public class BitSet implements Serializable {
 	 * Transforms each bit in this {@link BitSet} to the <i>dead</i> state.
 	 */
 	public final void empty() {
+		if (writesArray()) {
+			Arrays.fill(words, 0, wordCount, DEAD);
+			return;
+		}
 		for (int i = 0; i < wordCount; i++) {
 			emptyWord(i);
 		}
@@ -730,6 +1115,12 @@ public class BitSet implements Serializable {
 	 * state.
 	 */
 	public final void flip() {
+		if (writesArray()) {
+			for (int i = 0; i < wordCount; i++) {
+				words[i] = ~words[i];
+			}
+			return;
+		}
 		for (int i = 0; i < wordCount; i++) {
 			flipWord(i);
 		}
@@ -746,6 +1137,13 @@ public class BitSet implements Serializable {
 	 * @throws NullPointerException     if <b>set</b> is null.
 	 */
 	public final void and(final BitSet set) {
+		if (writesArray() && set.readsArray()) {
+			final long[] source = set.words;
+			for (int i = 0; i < wordCount; i++) {
+				words[i] &= source[i];
+			}
+			return;
+		}
 		for (int i = 0; i < wordCount; i++) {
 			andWord(i, set.getWord(i));
 		}
@@ -762,6 +1160,13 @@ public class BitSet implements Serializable {
 	 * @throws NullPointerException     if <b>set</b> is null.
 	 */
 	public final void or(final BitSet set) {
+		if (writesArray() && set.readsArray()) {
+			final long[] source = set.words;
+			for (int i = 0; i < wordCount; i++) {
+				words[i] |= source[i];
+			}
+			return;
+		}
 		for (int i = 0; i < wordCount; i++) {
 			orWord(i, set.getWord(i));
 		}
@@ -778,6 +1183,13 @@ public class BitSet implements Serializable {
 	 * @throws NullPointerException     if <b>set</b> is null.
 	 */
 	public final void xOr(final BitSet set) {
+		if (writesArray() && set.readsArray()) {
+			final long[] source = set.words;
+			for (int i = 0; i < wordCount; i++) {
+				words[i] ^= source[i];
+			}
+			return;
+		}
 		for (int i = 0; i < wordCount; i++) {
 			xOrWord(i, set.getWord(i));
 		}
@@ -794,6 +1206,13 @@ public class BitSet implements Serializable {
 	 * @throws NullPointerException     if <b>set</b> is null.
 	 */
 	public final void notAnd(final BitSet set) {
+		if (writesArray() && set.readsArray()) {
+			final long[] source = set.words;
+			for (int i = 0; i < wordCount; i++) {
+				words[i] = ~(words[i] & source[i]);
+			}
+			return;
+		}
 		for (int i = 0; i < wordCount; i++) {
 			notAndWord(i, set.getWord(i));
 		}
@@ -810,6 +1229,13 @@ public class BitSet implements Serializable {
 	 * @throws NullPointerException     if <b>set</b> is null.
 	 */
 	public final void notOr(final BitSet set) {
+		if (writesArray() && set.readsArray()) {
+			final long[] source = set.words;
+			for (int i = 0; i < wordCount; i++) {
+				words[i] = ~(words[i] | source[i]);
+			}
+			return;
+		}
 		for (int i = 0; i < wordCount; i++) {
 			notOrWord(i, set.getWord(i));
 		}
@@ -826,6 +1252,13 @@ public class BitSet implements Serializable {
 	 * @throws NullPointerException     if <b>set</b> is null.
 	 */
 	public final void notXOr(final BitSet set) {
+		if (writesArray() && set.readsArray()) {
+			final long[] source = set.words;
+			for (int i = 0; i < wordCount; i++) {
+				words[i] = ~(words[i] ^ source[i]);
+			}
+			return;
+		}
 		for (int i = 0; i < wordCount; i++) {
 			notXOrWord(i, set.getWord(i));
 		}
@@ -842,6 +1275,13 @@ public class BitSet implements Serializable {
 	 * @throws NullPointerException     if <b>set</b> is null.
 	 */
 	public final void not(final BitSet set) {
+		if (writesArray() && set.readsArray()) {
+			final long[] source = set.words;
+			for (int i = 0; i < wordCount; i++) {
+				words[i] = ~source[i];
+			}
+			return;
+		}
 		for (int i = 0; i < wordCount; i++) {
 			setWord(i, ~set.getWord(i));
 		}
@@ -857,11 +1297,668 @@ public class BitSet implements Serializable {
 	 * @throws NullPointerException     if <b>set</b> is null.
 	 */
 	public final void copy(final BitSet set) {
+		if (writesArray() && set.readsArray()) {
+			System.arraycopy(set.words, 0, words, 0, wordCount);
+			return;
+		}
 		for (int i = 0; i < wordCount; i++) {
 			setWord(i, set.getWord(i));
 		}
 	}
 
+	/**
+	 * Performs a global {@code AND} operation on all bits in this {@link BitSet}
+	 * with those in each of the specified <b>sets</b>, in a single pass over the
+	 * words. The words at each index of the <b>sets</b> are combined into a
+	 * single mask, which is applied through {@link #andWord(int, long)}, so
+	 * implementations such as {@link ConcurrentBitSet} apply it atomically. Once
+	 * the mask becomes {@link #DEAD}, the remaining <b>sets</b> are not read for
+	 * that word.
+	 * 
+	 * @param sets the other {@link BitSet}s from which to perform the {@code AND}
+	 *             operation.
+	 * @throws IllegalArgumentException if the {@link #size}s of the
+	 *                                  {@link BitSet}s are not equal.
+	 * @throws NullPointerException     if <b>sets</b>, or any of its elements are
+	 *                                  null.
+	 */
+	public final void and(final BitSet... sets) {
+		final long[][] sources = BitSet.arrays(sets);
+		if (writesArray() && sources != null) {
+			for (int i = 0; i < wordCount; i++) {
+				long word = words[i];
+				for (int j = 0; j < sources.length && word != DEAD; j++) {
+					word &= sources[j][i];
+				}
+				words[i] = word;
+			}
+			return;
+		}
+		for (int i = 0; i < wordCount; i++) {
+			long mask = LIVE;
+			for (int j = 0; j < sets.length && mask != DEAD; j++) {
+				mask &= sets[j].getWord(i);
+			}
+			if (mask != LIVE) {
+				andWord(i, mask);
+			}
+		}
+	}
+
+	/**
+	 * Performs a global {@code OR} operation on all bits in this {@link BitSet}
+	 * with those in each of the specified <b>sets</b>, in a single pass over the
+	 * words. The words at each index of the <b>sets</b> are combined into a
+	 * single mask, which is applied through {@link #orWord(int, long)}, so
+	 * implementations such as {@link ConcurrentBitSet} apply it atomically. Once
+	 * the mask becomes {@link #LIVE}, the remaining <b>sets</b> are not read for
+	 * that word.
+	 * 
+	 * @param sets the other {@link BitSet}s from which to perform the {@code OR}
+	 *             operation.
+	 * @throws IllegalArgumentException if the {@link #size}s of the
+	 *                                  {@link BitSet}s are not equal.
+	 * @throws NullPointerException     if <b>sets</b>, or any of its elements are
+	 *                                  null.
+	 */
+	public final void or(final BitSet... sets) {
+		final long[][] sources = BitSet.arrays(sets);
+		if (writesArray() && sources != null) {
+			for (int i = 0; i < wordCount; i++) {
+				long word = words[i];
+				for (int j = 0; j < sources.length && word != LIVE; j++) {
+					word |= sources[j][i];
+				}
+				words[i] = word;
+			}
+			return;
+		}
+		for (int i = 0; i < wordCount; i++) {
+			long mask = DEAD;
+			for (int j = 0; j < sets.length && mask != LIVE; j++) {
+				mask |= sets[j].getWord(i);
+			}
+			if (mask != DEAD) {
+				orWord(i, mask);
+			}
+		}
+	}
+
+	/**
+	 * Transforms each word in this {@link BitSet} by folding the specified
+	 * {@link WordBiFunction} <b>function</b> over it and the words at the same
+	 * index within each of the specified <b>sets</b> in order, in a single pass
+	 * over the words. Each word of this {@link BitSet} is transformed through
+	 * {@link #apply(int, WordFunction)}, so implementations such as
+	 * {@link ConcurrentBitSet} retry the fold if the word is modified
+	 * concurrently.
+	 * 
+	 * @param function the {@link WordBiFunction} to apply, with the accumulated
+	 *                 word as its first argument.
+	 * @param sets     the other {@link BitSet}s to fold into this {@link BitSet}.
+	 * @throws IllegalArgumentException if the {@link #size}s of the
+	 *                                  {@link BitSet}s are not equal.
+	 * @throws NullPointerException     if <b>function</b>, <b>sets</b>, or any of
+	 *                                  its elements are null.
+	 */
+	public final void reduce(final WordBiFunction function, final BitSet... sets) {
+		Objects.requireNonNull(function);
+		final long[][] sources = BitSet.arrays(sets);
+		if (writesArray() && sources != null) {
+			for (int i = 0; i < wordCount; i++) {
+				long word = words[i];
+				for (final long[] source : sources) {
+					word = function.apply(word, source[i]);
+				}
+				words[i] = word;
+			}
+			return;
+		}
+		final Fold fold = new Fold(function, sets);
+		for (int i = 0; i < wordCount; i++) {
+			fold.wordIndex = i;
+			apply(i, fold);
+		}
+	}
+
+	/**
+	 * Collects {@link #words} from each of the specified <b>sets</b>, if all of
+	 * them can be read directly.
+	 * 
+	 * @param sets the {@link BitSet}s whose {@link #words} to collect.
+	 * @return the {@link #words} of each {@link BitSet}, or null if any of them
+	 *         must be read through {@link #getWord(int)}.
+	 * @throws NullPointerException if <b>sets</b>, or any of its elements are
+	 *                              null.
+	 */
+	private static long[][] arrays(final BitSet... sets) {
+		final long[][] arrays = new long[sets.length][];
+		for (int i = 0; i < sets.length; i++) {
+			if (!sets[i].readsArray()) {
+				return null;
+			}
+			arrays[i] = sets[i].words;
+		}
+		return arrays;
+	}
+
+	/**
+	 * Copies <b>length</b> bits from the specified <b>src</b>, beginning at index
+	 * <b>srcFrom</b>, into this {@link BitSet} beginning at index <b>dstFrom</b>,
+	 * leaving all other bits unchanged. Bits are moved a word at a time regardless
+	 * of their alignment, and the ranges may overlap when <b>src</b> is this
+	 * {@link BitSet}.
+	 * 
+	 * @param src     the {@link BitSet} from which to read bits.
+	 * @param srcFrom (inclusive) the index of the first bit to read within
+	 *                <b>src</b>.
+	 * @param dstFrom (inclusive) the index of the first bit to change within this
+	 *                {@link BitSet}.
+	 * @param length  the number of bits to copy.
+	 * @throws IndexOutOfBoundsException if either range is outside of its
+	 *                                   {@link BitSet}, or <b>length</b> is
+	 *                                   negative.
+	 * @throws NullPointerException      if <b>src</b> is null.
+	 */
+	public final void copy(final BitSet src, final int srcFrom, final int dstFrom, final int length) {
+		splice(src, srcFrom, dstFrom, length, this::setWordSegment);
+	}
+
+	/**
+	 * Performs an {@code AND} operation between <b>length</b> bits of this
+	 * {@link BitSet} beginning at index <b>dstFrom</b>, and those of the
+	 * specified <b>src</b> beginning at index <b>srcFrom</b>, leaving all other
+	 * bits unchanged. Bits are combined a word at a time regardless of their
+	 * alignment.
+	 * 
+	 * @param src     the {@link BitSet} from which to read bits.
+	 * @param srcFrom (inclusive) the index of the first bit to read within
+	 *                <b>src</b>.
+	 * @param dstFrom (inclusive) the index of the first bit to change within this
+	 *                {@link BitSet}.
+	 * @param length  the number of bits to combine.
+	 * @throws IndexOutOfBoundsException if either range is outside of its
+	 *                                   {@link BitSet}, or <b>length</b> is
+	 *                                   negative.
+	 * @throws NullPointerException      if <b>src</b> is null.
+	 */
+	public final void and(final BitSet src, final int srcFrom, final int dstFrom, final int length) {
+		splice(src, srcFrom, dstFrom, length, (wordIndex, word, mask) -> andWord(wordIndex, word | ~mask));
+	}
+
+	/**
+	 * Performs an {@code OR} operation between <b>length</b> bits of this
+	 * {@link BitSet} beginning at index <b>dstFrom</b>, and those of the
+	 * specified <b>src</b> beginning at index <b>srcFrom</b>, leaving all other
+	 * bits unchanged. Bits are combined a word at a time regardless of their
+	 * alignment.
+	 * 
+	 * @param src     the {@link BitSet} from which to read bits.
+	 * @param srcFrom (inclusive) the index of the first bit to read within
+	 *                <b>src</b>.
+	 * @param dstFrom (inclusive) the index of the first bit to change within this
+	 *                {@link BitSet}.
+	 * @param length  the number of bits to combine.
+	 * @throws IndexOutOfBoundsException if either range is outside of its
+	 *                                   {@link BitSet}, or <b>length</b> is
+	 *                                   negative.
+	 * @throws NullPointerException      if <b>src</b> is null.
+	 */
+	public final void or(final BitSet src, final int srcFrom, final int dstFrom, final int length) {
+		splice(src, srcFrom, dstFrom, length, (wordIndex, word, mask) -> orWord(wordIndex, word & mask));
+	}
+
+	/**
+	 * Performs an {@code XOR} operation between <b>length</b> bits of this
+	 * {@link BitSet} beginning at index <b>dstFrom</b>, and those of the
+	 * specified <b>src</b> beginning at index <b>srcFrom</b>, leaving all other
+	 * bits unchanged. Bits are combined a word at a time regardless of their
+	 * alignment.
+	 * 
+	 * @param src     the {@link BitSet} from which to read bits.
+	 * @param srcFrom (inclusive) the index of the first bit to read within
+	 *                <b>src</b>.
+	 * @param dstFrom (inclusive) the index of the first bit to change within this
+	 *                {@link BitSet}.
+	 * @param length  the number of bits to combine.
+	 * @throws IndexOutOfBoundsException if either range is outside of its
+	 *                                   {@link BitSet}, or <b>length</b> is
+	 *                                   negative.
+	 * @throws NullPointerException      if <b>src</b> is null.
+	 */
+	public final void xOr(final BitSet src, final int srcFrom, final int dstFrom, final int length) {
+		splice(src, srcFrom, dstFrom, length, (wordIndex, word, mask) -> xOrWord(wordIndex, word & mask));
+	}
+
+	/**
+	 * Shifts all bits in this {@link BitSet} towards higher indices by the
+	 * specified <b>distance</b>, in the same direction as
+	 * {@link WordFunction#shiftL(int)}, carrying bits between words. Bits shifted
+	 * beyond {@link #size} are discarded, and the vacated bits are changed to the
+	 * <i>dead</i> state. A negative <b>distance</b> shifts towards lower indices.
+	 * Hanging bits are unaffected.
+	 * 
+	 * @param distance the number of indices to shift each bit by.
+	 */
+	public final void shiftLeft(final int distance) {
+		shift(this, distance);
+	}
+
+	/**
+	 * Shifts all bits in this {@link BitSet} towards lower indices by the
+	 * specified <b>distance</b>, in the same direction as
+	 * {@link WordFunction#shiftR(int)}, carrying bits between words. Bits shifted
+	 * below index 0 are discarded, and the vacated bits are changed to the
+	 * <i>dead</i> state. A negative <b>distance</b> shifts towards higher
+	 * indices. Hanging bits are unaffected.
+	 * 
+	 * @param distance the number of indices to shift each bit by.
+	 */
+	public final void shiftRight(final int distance) {
+		shift(this, -(long) distance);
+	}
+
+	/**
+	 * Rotates all bits in this {@link BitSet} towards higher indices by the
+	 * specified <b>distance</b>, in the same direction as
+	 * {@link WordFunction#rotateL(int)}, with bits shifted beyond {@link #size}
+	 * wrapping around to the lowest indices. A negative <b>distance</b> rotates
+	 * towards lower indices. Only the bits wrapping around, or the bits not
+	 * wrapping around if they are fewer, are buffered, after which each word is
+	 * written once in a single pass, walking in the direction that reads every
+	 * word before it is overwritten. Hanging bits are unaffected.
+	 * 
+	 * @param distance the number of indices to rotate each bit by.
+	 */
+	public final void rotate(final int distance) {
+		if (size == 0) {
+			return;
+		}
+		final int left = Math.floorMod(distance, size);
+		final int right = size - left;
+		if (left == 0) {
+			return;
+		}
+		if (left <= right) {
+			final BitSet buffer = new BitSet(left);
+			buffer.copy(this, right, 0, left);
+			for (int i = wordCount - 1; i >= 0; i--) {
+				final long index = BitSet.multiplySize(i);
+				writeAligned(i, window(index - left, 0, right) | buffer.window(index, 0, left));
+			}
+		} else {
+			final BitSet buffer = new BitSet(right);
+			buffer.copy(this, 0, 0, right);
+			for (int i = 0; i < wordCount; i++) {
+				final long index = BitSet.multiplySize(i);
+				writeAligned(i, window(index + right, right, size) | buffer.window(index - left, 0, right));
+			}
+		}
+	}
+
+	/**
+	 * Changes the bits of the specified <b>dst</b> to those of this
+	 * {@link BitSet} shifted towards higher indices by the specified
+	 * <b>distance</b>, leaving this {@link BitSet} unchanged unless it is
+	 * <b>dst</b>. Bits of <b>dst</b> without a corresponding bit in this
+	 * {@link BitSet} are changed to the <i>dead</i> state. A negative
+	 * <b>distance</b> shifts towards lower indices. The {@link #size}s of both
+	 * {@link BitSet}s may differ, and the hanging bits of <b>dst</b> are
+	 * unaffected.
+	 * 
+	 * @param dst      the {@link BitSet} to change.
+	 * @param distance the number of indices to shift each bit by.
+	 * @throws NullPointerException if <b>dst</b> is null.
+	 */
+	public final void shiftInto(final BitSet dst, final int distance) {
+		shift(dst, distance);
+	}
+
+	/**
+	 * Changes the bits of the specified <b>dst</b> to those of this
+	 * {@link BitSet} shifted towards higher indices by <b>distance</b>, writing
+	 * each word of <b>dst</b> once in a single pass. If <b>dst</b> is this
+	 * {@link BitSet} and bits are moved to higher indices, words are visited in
+	 * descending order so that no word is read after being changed.
+	 * 
+	 * @param dst      the {@link BitSet} to change.
+	 * @param distance the number of indices to shift each bit by, which is a long
+	 *                 to allow the negation of any int.
+	 */
+	private void shift(final BitSet dst, final long distance) {
+		final boolean descending = dst == this && distance > 0L;
+		for (int i = 0; i < dst.wordCount; i++) {
+			final int wordIndex = descending ? dst.wordCount - 1 - i : i;
+			dst.writeAligned(wordIndex, window(BitSet.multiplySize(wordIndex) - distance, 0, size));
+		}
+	}
+
+	/**
+	 * Changes the word at the specified <b>wordIndex</b> to the specified
+	 * <b>word</b>, leaving any hanging bits unchanged.
+	 * 
+	 * @param wordIndex the index of the word to change.
+	 * @param word      the new value of the word.
+	 */
+	private void writeAligned(final int wordIndex, final long word) {
+		if (wordIndex == wordCount - 1 && BitSet.modSize(size) != 0) {
+			setWordSegment(wordIndex, word, LIVE >>> -size);
+		} else {
+			setWord(wordIndex, word);
+		}
+	}
+
+	/**
+	 * Applies the specified <b>operation</b> to each word of this {@link BitSet}
+	 * overlapping the range of <b>length</b> bits beginning at <b>dstFrom</b>,
+	 * supplying the bits of <b>src</b> beginning at <b>srcFrom</b> shifted into
+	 * alignment. If <b>src</b> is this {@link BitSet} and bits are moved to
+	 * higher indices, words are visited in descending order so that no bit is
+	 * read after being changed.
+	 * 
+	 * @param src       the {@link BitSet} from which to read bits.
+	 * @param srcFrom   (inclusive) the index of the first bit to read within
+	 *                  <b>src</b>.
+	 * @param dstFrom   (inclusive) the index of the first bit to change within
+	 *                  this {@link BitSet}.
+	 * @param length    the number of bits to change.
+	 * @param operation the {@link SegmentOperation} to apply to each word.
+	 * @throws IndexOutOfBoundsException if either range is outside of its
+	 *                                   {@link BitSet}, or <b>length</b> is
+	 *                                   negative.
+	 */
+	private void splice(final BitSet src, final int srcFrom, final int dstFrom, final int length,
+			final SegmentOperation operation) {
+		Objects.checkFromIndexSize(srcFrom, length, src.size);
+		Objects.checkFromIndexSize(dstFrom, length, size);
+		if (length == 0) {
+			return;
+		}
+		final int to = dstFrom + length;
+		final int start = BitSet.divideSize(dstFrom);
+		final int end = BitSet.divideSize(to - 1);
+		final int offset = srcFrom - dstFrom;
+		final boolean descending = src == this && offset < 0;
+		for (int i = start; i <= end; i++) {
+			final int wordIndex = descending ? start + end - i : i;
+			long mask = LIVE;
+			if (wordIndex == start) {
+				mask &= LIVE << dstFrom;
+			}
+			if (wordIndex == end) {
+				mask &= LIVE >>> -to;
+			}
+			operation.apply(wordIndex, src.window(BitSet.multiplySize(wordIndex) + offset), mask);
+		}
+	}
+
+	/**
+	 * Reads the 64 bits beginning at the specified <b>index</b>, which need not be
+	 * aligned to a word. Bits before index 0 or after the last word are read as
+	 * <i>dead</i>.
+	 * 
+	 * @param index (inclusive) the index of the first bit to read, which may be
+	 *              negative.
+	 * @return the 64 bits beginning at <b>index</b>, with the bit at
+	 *         <b>index</b> as the lowest bit.
+	 */
+	private long window(final int index) {
+		final int wordIndex = index >> LOG_2_SIZE;
+		final int shift = BitSet.modSize(index);
+		long word = wordIndex >= 0 && wordIndex < wordCount ? getWord(wordIndex) >>> shift : DEAD;
+		if (shift != 0 && wordIndex + 1 >= 0 && wordIndex + 1 < wordCount) {
+			word |= getWord(wordIndex + 1) << -shift;
+		}
+		return word;
+	}
+
+	/**
+	 * Reads the 64 bits beginning at the specified <b>index</b>, in the manner of
+	 * {@link #window(int)}, with bits outside of the range [<b>from</b>,
+	 * <b>to</b>) read as <i>dead</i>.
+	 * 
+	 * @param index (inclusive) the index of the first bit to read, which may lie
+	 *              outside of this {@link BitSet}.
+	 * @param from  (inclusive) the index of the first bit which may be read.
+	 * @param to    (exclusive) the end of the range of bits which may be read.
+	 * @return the 64 bits beginning at <b>index</b> within the range, with the
+	 *         bit at <b>index</b> as the lowest bit.
+	 */
+	private long window(final long index, final int from, final int to) {
+		final long low = Math.max(from - index, 0L);
+		final long high = Math.min(to - index, Long.SIZE);
+		if (low >= high) {
+			return DEAD;
+		}
+		return window((int) index) & (LIVE << low) & (LIVE >>> (Long.SIZE - high));
+	}
+
+	/**
+	 * Calculates the number of <i>live</i> bits in the result of an {@code AND}
+	 * operation between this {@link BitSet} and the specified <b>set</b>, without
+	 * modifying either. Hanging bits are excluded.
+	 * 
+	 * @param set the other {@link BitSet} from which to perform the {@code AND}
+	 *            operation.
+	 * @return the number of <i>live</i> bits in the result.
+	 * @throws IllegalArgumentException if the {@link #size}s of both
+	 *                                  {@link BitSet}s are not equal.
+	 * @throws NullPointerException     if <b>set</b> is null.
+	 */
+	public final int andPopulation(final BitSet set) {
+		final int last = wordCount - 1;
+		if (last < 0) {
+			return 0;
+		}
+		int population = 0;
+		if (readsArray() && set.readsArray()) {
+			final long[] source = set.words;
+			for (int i = 0; i < last; i++) {
+				population += Long.bitCount(words[i] & source[i]);
+			}
+		} else {
+			for (int i = 0; i < last; i++) {
+				population += Long.bitCount(getWord(i) & set.getWord(i));
+			}
+		}
+		return population + Long.bitCount((getWord(last) & set.getWord(last)) & (LIVE >>> -size));
+	}
+
+	/**
+	 * Calculates the number of <i>live</i> bits in the result of an {@code OR}
+	 * operation between this {@link BitSet} and the specified <b>set</b>, without
+	 * modifying either. Hanging bits are excluded.
+	 * 
+	 * @param set the other {@link BitSet} from which to perform the {@code OR}
+	 *            operation.
+	 * @return the number of <i>live</i> bits in the result.
+	 * @throws IllegalArgumentException if the {@link #size}s of both
+	 *                                  {@link BitSet}s are not equal.
+	 * @throws NullPointerException     if <b>set</b> is null.
+	 */
+	public final int orPopulation(final BitSet set) {
+		final int last = wordCount - 1;
+		if (last < 0) {
+			return 0;
+		}
+		int population = 0;
+		if (readsArray() && set.readsArray()) {
+			final long[] source = set.words;
+			for (int i = 0; i < last; i++) {
+				population += Long.bitCount(words[i] | source[i]);
+			}
+		} else {
+			for (int i = 0; i < last; i++) {
+				population += Long.bitCount(getWord(i) | set.getWord(i));
+			}
+		}
+		return population + Long.bitCount((getWord(last) | set.getWord(last)) & (LIVE >>> -size));
+	}
+
+	/**
+	 * Calculates the number of <i>live</i> bits in the result of an {@code XOR}
+	 * operation between this {@link BitSet} and the specified <b>set</b>, without
+	 * modifying either. Hanging bits are excluded.
+	 * 
+	 * @param set the other {@link BitSet} from which to perform the {@code XOR}
+	 *            operation.
+	 * @return the number of <i>live</i> bits in the result.
+	 * @throws IllegalArgumentException if the {@link #size}s of both
+	 *                                  {@link BitSet}s are not equal.
+	 * @throws NullPointerException     if <b>set</b> is null.
+	 */
+	public final int xOrPopulation(final BitSet set) {
+		final int last = wordCount - 1;
+		if (last < 0) {
+			return 0;
+		}
+		int population = 0;
+		if (readsArray() && set.readsArray()) {
+			final long[] source = set.words;
+			for (int i = 0; i < last; i++) {
+				population += Long.bitCount(words[i] ^ source[i]);
+			}
+		} else {
+			for (int i = 0; i < last; i++) {
+				population += Long.bitCount(getWord(i) ^ set.getWord(i));
+			}
+		}
+		return population + Long.bitCount((getWord(last) ^ set.getWord(last)) & (LIVE >>> -size));
+	}
+
+	/**
+	 * Calculates the number of <i>live</i> bits in the result of a
+	 * {@code NOT AND} operation between this {@link BitSet} and the specified
+	 * <b>set</b>, without modifying either. Hanging bits are excluded.
+	 * 
+	 * @param set the other {@link BitSet} from which to perform the
+	 *            {@code NOT AND} operation.
+	 * @return the number of <i>live</i> bits in the result.
+	 * @throws IllegalArgumentException if the {@link #size}s of both
+	 *                                  {@link BitSet}s are not equal.
+	 * @throws NullPointerException     if <b>set</b> is null.
+	 * @see #notAnd(BitSet)
+	 */
+	public final int notAndPopulation(final BitSet set) {
+		return size - andPopulation(set);
+	}
+
+	/**
+	 * Checks whether this {@link BitSet} and the specified <b>set</b> have any
+	 * <i>live</i> bits at the same index, stopping at the first such word.
+	 * Hanging bits are excluded.
+	 * 
+	 * @param set the other {@link BitSet} to check.
+	 * @return whether any bit is in the <i>live</i> state within both
+	 *         {@link BitSet}s.
+	 * @throws IllegalArgumentException if the {@link #size}s of both
+	 *                                  {@link BitSet}s are not equal.
+	 * @throws NullPointerException     if <b>set</b> is null.
+	 */
+	public final boolean intersects(final BitSet set) {
+		final int last = wordCount - 1;
+		if (last < 0) {
+			return false;
+		}
+		for (int i = 0; i < last; i++) {
+			if ((getWord(i) & set.getWord(i)) != DEAD) {
+				return true;
+			}
+		}
+		return (getWord(last) & set.getWord(last) & (LIVE >>> -size)) != DEAD;
+	}
+
+	/**
+	 * Checks whether every <i>live</i> bit within this {@link BitSet} is also
+	 * <i>live</i> within the specified <b>set</b>, stopping at the first word
+	 * where this isn't the case. Hanging bits are excluded.
+	 * 
+	 * @param set the other {@link BitSet} to check.
+	 * @return whether this {@link BitSet} is a subset of <b>set</b>.
+	 * @throws IllegalArgumentException if the {@link #size}s of both
+	 *                                  {@link BitSet}s are not equal.
+	 * @throws NullPointerException     if <b>set</b> is null.
+	 */
+	public final boolean isSubsetOf(final BitSet set) {
+		final int last = wordCount - 1;
+		if (last < 0) {
+			return true;
+		}
+		for (int i = 0; i < last; i++) {
+			if ((getWord(i) & ~set.getWord(i)) != DEAD) {
+				return false;
+			}
+		}
+		return (getWord(last) & ~set.getWord(last) & (LIVE >>> -size)) == DEAD;
+	}
+
+	/**
+	 * Calculates the Jaccard index between this {@link BitSet} and the specified
+	 * <b>set</b>: the population of their intersection divided by the population
+	 * of their union, in a single pass without modifying either. Two
+	 * {@link BitSet}s without any <i>live</i> bits are considered identical.
+	 * Hanging bits are excluded.
+	 * 
+	 * @param set the other {@link BitSet} to compare.
+	 * @return the Jaccard index, between 0 and 1.
+	 * @throws IllegalArgumentException if the {@link #size}s of both
+	 *                                  {@link BitSet}s are not equal.
+	 * @throws NullPointerException     if <b>set</b> is null.
+	 */
+	public final double jaccard(final BitSet set) {
+		final int last = wordCount - 1;
+		if (last < 0) {
+			return 1.0;
+		}
+		int intersection = 0;
+		int union = 0;
+		if (readsArray() && set.readsArray()) {
+			final long[] source = set.words;
+			for (int i = 0; i < last; i++) {
+				intersection += Long.bitCount(words[i] & source[i]);
+				union += Long.bitCount(words[i] | source[i]);
+			}
+		} else {
+			for (int i = 0; i < last; i++) {
+				final long word = getWord(i);
+				final long other = set.getWord(i);
+				intersection += Long.bitCount(word & other);
+				union += Long.bitCount(word | other);
+			}
+		}
+		final long word = getWord(last) & (LIVE >>> -size);
+		final long other = set.getWord(last) & (LIVE >>> -size);
+		intersection += Long.bitCount(word & other);
+		union += Long.bitCount(word | other);
+		return union == 0 ? 1.0 : intersection / (double) union;
+	}
+
+	/**
+	 * Checks whether the words of this {@link BitSet} can be read directly from
+	 * {@link #words}, which is only known to be true for implementations that
+	 * don't override {@link #getWord(int)}.
+	 * 
+	 * @return whether {@link #words} may be read in place of
+	 *         {@link #getWord(int)}.
+	 */
+	private boolean readsArray() {
+		final Class<?> type = getClass();
+		return type == BitSet.class || type == InlineBitSet.class || type == ImmutableBitSet.class;
+	}
+
+	/**
+	 * Checks whether the words of this {@link BitSet} can be written directly to
+	 * {@link #words}, which is only known to be true for implementations that
+	 * don't override {@link #setWord(int, long)}, while not {@link #tracked}.
+	 * 
+	 * @return whether {@link #words} may be written in place of
+	 *         {@link #setWord(int, long)}.
+	 */
+	private boolean writesArray() {
+		final Class<?> type = getClass();
+		return !tracked && (type == BitSet.class || type == InlineBitSet.class);
+	}
+
 	/**
 	 * Changes the state of any hanging bits to the <i>dead</i> state in order to
 	 * maintain their effect on aggregating functions ({@link #population()},
@@ -877,12 +1974,22 @@ public class BitSet implements Serializable {
 	/**
 	 * Calculates the number of <i>live</i> bits within this {@link BitSet}.
 	 * {@link #clearHanging()} can be used to stop the interference of hanging bits.
-	 * In certain cases, hanging bits can cause an integer overflow.
+	 * In certain cases, hanging bits can cause an integer overflow. If
+	 * {@link #tracked}, the maintained population is returned in constant time.
 	 * 
 	 * @return the number of <i>live</i> bits.
 	 */
-	public final int population() {
+	public int population() {
+		if (tracked) {
+			return trackedPopulation();
+		}
 		int population = 0;
+		if (readsArray()) {
+			for (int i = 0; i < wordCount; i++) {
+				population += Long.bitCount(words[i]);
+			}
+			return population;
+		}
 		for (int i = 0; i < wordCount; i++) {
 			population += Long.bitCount(getWord(i));
 		}
@@ -949,6 +2056,25 @@ public class BitSet implements Serializable {
 		return n & MOD_SIZE_MASK;
 	}
 
+	/**
+	 * Calculates the number of long words needed to hold the specified number of
+	 * bits, equal to ceiling(<b>size</b> / 64).
+	 * 
+	 * @param size the number of bits to be held.
+	 * @return the number of words needed to hold <b>size</b> bits.
+	 * @throws IllegalArgumentException if <b>size</b> is less than 0.
+	 */
+	protected static final int countWords(final int size) {
+		int wordCount = BitSet.divideSize(size);
+		if (wordCount < 0) {
+			throw new IllegalArgumentException(Integer.toString(size));
+		}
+		if (BitSet.modSize(size) > 0) {
+			wordCount++;
+		}
+		return wordCount;
+	}
+
 	/**
 	 * Calculates a mask to represent the bit at which a specific index will be
 	 * stored within a long word.
@@ -960,6 +2086,374 @@ public class BitSet implements Serializable {
 		return 1L << index;
 	}
 
+	/**
+	 * Creates a {@link BitSet} with the specified <b>size</b> that uses the
+	 * specified array <b>words</b> directly, without copying it. Changes made to
+	 * either are visible through the other. Words beyond ceiling(<b>size</b> / 64)
+	 * are ignored.
+	 * 
+	 * @param words the array to be used as {@link #words}.
+	 * @param size  the number of bit indices that the {@link BitSet} will hold.
+	 * @return a {@link BitSet} backed by <b>words</b>.
+	 * @throws IllegalArgumentException if <b>size</b> is less than 0, or
+	 *                                  <b>words</b> has fewer than
+	 *                                  ceiling(<b>size</b> / 64) elements.
+	 * @throws NullPointerException     if <b>words</b> is null.
+	 */
+	public static BitSet wrap(final long[] words, final int size) {
+		if (words.length < BitSet.countWords(size)) {
+			throw new IllegalArgumentException(Integer.toString(words.length));
+		}
+		return new BitSet(size, words);
+	}
+
+	/**
+	 * Creates a {@link BitSet} holding the same bits as the specified
+	 * {@link java.util.BitSet} <b>set</b>, with a {@link #size} equal to
+	 * {@link java.util.BitSet#length()}. The array produced by
+	 * {@link java.util.BitSet#toLongArray()} is used directly, without a second
+	 * copy.
+	 * 
+	 * @param set the {@link java.util.BitSet} to copy.
+	 * @return a {@link BitSet} holding the bits of <b>set</b>.
+	 * @throws NullPointerException if <b>set</b> is null.
+	 */
+	public static BitSet valueOf(final java.util.BitSet set) {
+		return new BitSet(set.length(), set.toLongArray());
+	}
+
+	/**
+	 * Creates a {@link BitSet} holding the bits of the bytes between the position
+	 * and limit of the specified <b>buffer</b>, interpreted in little-endian order
+	 * as by {@link java.util.BitSet#valueOf(ByteBuffer)}, with a {@link #size} of
+	 * 8 bits per byte. Whole words are copied in bulk, and <b>buffer</b> is left
+	 * unchanged.
+	 * 
+	 * @param buffer the buffer holding the bits.
+	 * @return a {@link BitSet} holding the bits of <b>buffer</b>.
+	 * @throws ArithmeticException  if <b>buffer</b> holds more bits than an int
+	 *                              can index.
+	 * @throws NullPointerException if <b>buffer</b> is null.
+	 */
+	public static BitSet valueOf(final ByteBuffer buffer) {
+		final ByteBuffer bytes = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+		final int size = Math.multiplyExact(bytes.remaining(), Byte.SIZE);
+		final long[] words = new long[BitSet.countWords(size)];
+		final int whole = bytes.remaining() / Long.BYTES;
+		bytes.asLongBuffer().get(words, 0, whole);
+		for (int i = whole * Long.BYTES; i < bytes.remaining(); i++) {
+			words[whole] |= (bytes.get(i) & 0xFFL) << (Byte.SIZE * (i - whole * Long.BYTES));
+		}
+		return new BitSet(size, words);
+	}
+
+	/**
+	 * Creates an array containing a copy of the words of this {@link BitSet},
+	 * with a length of {@link #wordCount}.
+	 * 
+	 * @return a copy of the words of this {@link BitSet}.
+	 */
+	public final long[] toLongArray() {
+		if (readsArray()) {
+			return Arrays.copyOf(words, wordCount);
+		}
+		final long[] array = new long[wordCount];
+		for (int i = 0; i < wordCount; i++) {
+			array[i] = getWord(i);
+		}
+		return array;
+	}
+
+	/**
+	 * Creates a read-only {@link LongBuffer} view of the words of this
+	 * {@link BitSet}, with a limit of {@link #wordCount}. No words are copied, so
+	 * subsequent changes to this {@link BitSet} are visible through the view.
+	 * Implementations storing their words outside of {@link #words} override
+	 * this to provide a view of their own storage.
+	 * 
+	 * @return a read-only view of the words of this {@link BitSet}.
+	 */
+	public LongBuffer asLongBuffer() {
+		return LongBuffer.wrap(words, 0, wordCount).slice().asReadOnlyBuffer();
+	}
+
+	/**
+	 * Writes this {@link BitSet} to the specified <b>channel</b> in its binary
+	 * format, without run-length encoding.
+	 * 
+	 * @param channel the channel to write to.
+	 * @throws IOException          if an I/O error occurs.
+	 * @throws NullPointerException if <b>channel</b> is null.
+	 * @see #writeTo(WritableByteChannel, boolean)
+	 */
+	public final void writeTo(final WritableByteChannel channel) throws IOException {
+		writeTo(channel, false);
+	}
+
+	/**
+	 * Writes this {@link BitSet} to the specified <b>channel</b> in its binary
+	 * format, which can be read by {@link #readFrom(ReadableByteChannel)}.
+	 * Unlike serialization, the format does not depend upon the implementation or
+	 * layout of the class.
+	 * <p>
+	 * The format begins with a little-endian header holding a magic number, the
+	 * version of the format, flags, and {@link #size}, followed by the words in
+	 * little-endian byte order, hanging bits included. If <b>runLength</b> is
+	 * {@code true}, words are instead written as groups, each beginning with a
+	 * marker holding the state of a run of {@link #LIVE} or {@link #DEAD} words in
+	 * its lowest bit, the length of that run in the following 32 bits, and the
+	 * number of other words following the marker in its remaining bits. Words
+	 * are transferred through a heap buffer allocated for this call, no larger
+	 * than 64 KiB.
+	 * 
+	 * @param channel   the channel to write to.
+	 * @param runLength whether to run-length encode words which are entirely
+	 *                  {@link #LIVE} or {@link #DEAD}.
+	 * @throws IOException          if an I/O error occurs.
+	 * @throws NullPointerException if <b>channel</b> is null.
+	 * @see #writeTo(WritableByteChannel, boolean, ByteBuffer)
+	 */
+	public final void writeTo(final WritableByteChannel channel, final boolean runLength) throws IOException {
+		final long bytes = HEADER_BYTES + (long) wordCount * Long.BYTES;
+		writeTo(channel, runLength, ByteBuffer.allocate((int) Math.min(bytes, TRANSFER_BYTES)));
+	}
+
+	/**
+	 * Writes this {@link BitSet} to the specified <b>channel</b> in its binary
+	 * format, in the manner of {@link #writeTo(WritableByteChannel, boolean)},
+	 * transferring words through the specified <b>buffer</b>. A single buffer,
+	 * such as a direct buffer, may be reused by any number of transfers that do
+	 * not overlap. The contents of <b>buffer</b> are discarded, and its byte order
+	 * is changed to little-endian.
+	 * 
+	 * @param channel   the channel to write to.
+	 * @param runLength whether to run-length encode words which are entirely
+	 *                  {@link #LIVE} or {@link #DEAD}.
+	 * @param buffer    the buffer to transfer words through, with a capacity of at
+	 *                  least 12 bytes.
+	 * @throws IOException              if an I/O error occurs.
+	 * @throws IllegalArgumentException if the capacity of <b>buffer</b> is less
+	 *                                  than 12 bytes.
+	 * @throws NullPointerException     if <b>channel</b> or <b>buffer</b> is null.
+	 */
+	public final void writeTo(final WritableByteChannel channel, final boolean runLength, final ByteBuffer buffer)
+			throws IOException {
+		BitSet.prepare(buffer);
+		buffer.putInt(FORMAT_MAGIC).put(FORMAT_VERSION).put(runLength ? RUN_LENGTH_FLAG : 0).putShort((short) 0)
+				.putInt(size);
+		if (!runLength) {
+			writeWords(channel, buffer, 0, wordCount);
+		} else {
+			int i = 0;
+			while (i < wordCount) {
+				final long fill = getWord(i);
+				int run = 0;
+				if (fill == DEAD || fill == LIVE) {
+					while (i + run < wordCount && getWord(i + run) == fill) {
+						run++;
+					}
+				}
+				final int start = i + run;
+				int literals = 0;
+				while (start + literals < wordCount) {
+					final long word = getWord(start + literals);
+					if (word == DEAD || word == LIVE) {
+						break;
+					}
+					literals++;
+				}
+				if (buffer.remaining() < Long.BYTES) {
+					BitSet.flush(channel, buffer);
+				}
+				buffer.putLong((run > 0 ? fill & 1L : 0L) | ((long) run << 1) | ((long) literals << (Integer.SIZE + 1)));
+				writeWords(channel, buffer, start, literals);
+				i = start + literals;
+			}
+		}
+		BitSet.flush(channel, buffer);
+	}
+
+	/**
+	 * Writes <b>count</b> words beginning at <b>from</b> into <b>buffer</b>,
+	 * flushing it to <b>channel</b> whenever it becomes full. Words are copied in
+	 * bulk when they can be read directly from {@link #words}.
+	 * 
+	 * @param channel the channel to write to.
+	 * @param buffer  the little-endian buffer to write through.
+	 * @param from    the index of the first word to write.
+	 * @param count   the number of words to write.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeWords(final WritableByteChannel channel, final ByteBuffer buffer, int from, int count)
+			throws IOException {
+		while (count > 0) {
+			if (buffer.remaining() < Long.BYTES) {
+				BitSet.flush(channel, buffer);
+			}
+			final int length = Math.min(count, buffer.remaining() / Long.BYTES);
+			if (readsArray()) {
+				buffer.asLongBuffer().put(words, from, length);
+				buffer.position(buffer.position() + length * Long.BYTES);
+			} else {
+				for (int i = from; i < from + length; i++) {
+					buffer.putLong(getWord(i));
+				}
+			}
+			from += length;
+			count -= length;
+		}
+	}
+
+	/**
+	 * Writes the contents of <b>buffer</b> to <b>channel</b>, and clears it.
+	 * 
+	 * @param channel the channel to write to.
+	 * @param buffer  the buffer to write.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static void flush(final WritableByteChannel channel, final ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Reads a {@link BitSet} from the specified <b>channel</b>, previously written
+	 * by {@link #writeTo(WritableByteChannel, boolean)}. No bytes beyond the end
+	 * of the {@link BitSet} are consumed from <b>channel</b>, so multiple
+	 * {@link BitSet}s may be read from the same channel in sequence. Words are
+	 * transferred through a heap buffer of 64 KiB allocated for this call.
+	 * 
+	 * @param channel the channel to read from.
+	 * @return the {@link BitSet} read.
+	 * @throws EOFException         if <b>channel</b> ends before the entire
+	 *                              {@link BitSet} was read.
+	 * @throws IOException          if an I/O error occurs, or the bytes read were
+	 *                              not written by
+	 *                              {@link #writeTo(WritableByteChannel, boolean)}.
+	 * @throws NullPointerException if <b>channel</b> is null.
+	 * @see #readFrom(ReadableByteChannel, ByteBuffer)
+	 */
+	public static BitSet readFrom(final ReadableByteChannel channel) throws IOException {
+		return BitSet.readFrom(channel, ByteBuffer.allocate(TRANSFER_BYTES));
+	}
+
+	/**
+	 * Reads a {@link BitSet} from the specified <b>channel</b>, in the manner of
+	 * {@link #readFrom(ReadableByteChannel)}, transferring words through the
+	 * specified <b>buffer</b>. A single buffer, such as a direct buffer, may be
+	 * reused by any number of transfers that do not overlap. The contents of
+	 * <b>buffer</b> are discarded, and its byte order is changed to
+	 * little-endian.
+	 * 
+	 * @param channel the channel to read from.
+	 * @param buffer  the buffer to transfer words through, with a capacity of at
+	 *                least 12 bytes.
+	 * @return the {@link BitSet} read.
+	 * @throws EOFException             if <b>channel</b> ends before the entire
+	 *                                  {@link BitSet} was read.
+	 * @throws IOException              if an I/O error occurs, or the bytes read
+	 *                                  were not written by
+	 *                                  {@link #writeTo(WritableByteChannel, boolean)}.
+	 * @throws IllegalArgumentException if the capacity of <b>buffer</b> is less
+	 *                                  than 12 bytes.
+	 * @throws NullPointerException     if <b>channel</b> or <b>buffer</b> is null.
+	 */
+	public static BitSet readFrom(final ReadableByteChannel channel, final ByteBuffer buffer) throws IOException {
+		BitSet.prepare(buffer);
+		BitSet.read(channel, buffer, HEADER_BYTES);
+		final int magic = buffer.getInt();
+		final byte version = buffer.get();
+		final byte flags = buffer.get();
+		buffer.getShort();
+		final int size = buffer.getInt();
+		if (magic != FORMAT_MAGIC || version != FORMAT_VERSION || (flags & ~RUN_LENGTH_FLAG) != 0 || size < 0) {
+			throw new IOException("Unrecognized format");
+		}
+		final BitSet set = new BitSet(size);
+		if ((flags & RUN_LENGTH_FLAG) == 0) {
+			BitSet.readWords(channel, buffer, set.words, 0, set.wordCount);
+			return set;
+		}
+		int i = 0;
+		while (i < set.wordCount) {
+			BitSet.read(channel, buffer, Long.BYTES);
+			final long marker = buffer.getLong();
+			final long run = (marker >>> 1) & (LIVE >>> Integer.SIZE);
+			final long literals = marker >>> (Integer.SIZE + 1);
+			if (run + literals == 0L || run + literals > set.wordCount - i) {
+				throw new IOException("Invalid run-length marker");
+			}
+			if ((marker & 1L) != 0L) {
+				Arrays.fill(set.words, i, i + (int) run, LIVE);
+			}
+			i += (int) run;
+			BitSet.readWords(channel, buffer, set.words, i, (int) literals);
+			i += (int) literals;
+		}
+		return set;
+	}
+
+	/**
+	 * Reads <b>count</b> little-endian words from <b>channel</b> into
+	 * <b>words</b> beginning at index <b>from</b>, through <b>buffer</b>.
+	 * 
+	 * @param channel the channel to read from.
+	 * @param buffer  the little-endian buffer to read through.
+	 * @param words   the array to read words into.
+	 * @param from    the index within <b>words</b> of the first word read.
+	 * @param count   the number of words to read.
+	 * @throws IOException if an I/O error occurs, or <b>channel</b> ends early.
+	 */
+	private static void readWords(final ReadableByteChannel channel, final ByteBuffer buffer, final long[] words,
+			int from, int count) throws IOException {
+		while (count > 0) {
+			final int length = Math.min(count, buffer.capacity() / Long.BYTES);
+			BitSet.read(channel, buffer, length * Long.BYTES);
+			buffer.asLongBuffer().get(words, from, length);
+			from += length;
+			count -= length;
+		}
+	}
+
+	/**
+	 * Prepares the specified <b>buffer</b> for a transfer, clearing it and
+	 * ordering its bytes as little-endian.
+	 * 
+	 * @param buffer the buffer to transfer words through.
+	 * @throws IllegalArgumentException if the capacity of <b>buffer</b> cannot hold
+	 *                                  the header of the binary format.
+	 * @throws NullPointerException     if <b>buffer</b> is null.
+	 */
+	private static void prepare(final ByteBuffer buffer) {
+		if (buffer.capacity() < HEADER_BYTES) {
+			throw new IllegalArgumentException(Integer.toString(buffer.capacity()));
+		}
+		buffer.clear().order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Clears <b>buffer</b> and reads exactly <b>bytes</b> bytes into it from
+	 * <b>channel</b>, leaving it flipped for reading.
+	 * 
+	 * @param channel the channel to read from.
+	 * @param buffer  the buffer to read into.
+	 * @param bytes   the number of bytes to read.
+	 * @throws IOException if an I/O error occurs, or <b>channel</b> ends early.
+	 */
+	private static void read(final ReadableByteChannel channel, final ByteBuffer buffer, final int bytes)
+			throws IOException {
+		buffer.clear().limit(bytes);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				throw new EOFException();
+			}
+		}
+		buffer.flip();
+	}
+
 	@Override
 	public int hashCode() {
 		long hash = size;
@@ -978,7 +2472,105 @@ public class BitSet implements Serializable {
 		if (obj == this) {
 			return true;
 		}
-		return obj instanceof BitSet && Arrays.equals(words, ((BitSet) obj).words);
+		if (!(obj instanceof BitSet)) {
+			return false;
+		}
+		final BitSet set = (BitSet) obj;
+		if (words.length == wordCount && set.words.length == set.wordCount) {
+			return Arrays.equals(words, set.words);
+		}
+		if (wordCount != set.wordCount) {
+			return false;
+		}
+		for (int i = 0; i < wordCount; i++) {
+			if (getWord(i) != set.getWord(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Operation applied to a single word of a {@link BitSet} by
+	 * {@link BitSet#combine(int[], int, int, boolean, MaskOperation)}.
+	 */
+	@FunctionalInterface
+	private interface MaskOperation {
+
+		/**
+		 * Applies this operation to the word at the specified <b>wordIndex</b>.
+		 * 
+		 * @param wordIndex the index of the word to change.
+		 * @param mask      the combined bits of the indices within the word.
+		 * @return the number of bits counted by this operation.
+		 */
+		int apply(int wordIndex, long mask);
+
+	}
+
+	/**
+	 * Operation applied to a single word of a {@link BitSet} by
+	 * {@link BitSet#splice(BitSet, int, int, int, SegmentOperation)}.
+	 */
+	@FunctionalInterface
+	private interface SegmentOperation {
+
+		/**
+		 * Applies this operation to the word at the specified <b>wordIndex</b>.
+		 * 
+		 * @param wordIndex the index of the word to change.
+		 * @param word      the aligned bits read from the source {@link BitSet}.
+		 * @param mask      the bits of the word which are within the range being
+		 *                  changed.
+		 */
+		void apply(int wordIndex, long word, long mask);
+
+	}
+
+	/**
+	 * {@link WordFunction} used by {@link BitSet#reduce(WordBiFunction, BitSet...)}
+	 * to fold a {@link WordBiFunction} over a word and the words at the same index
+	 * within other {@link BitSet}s. A single instance is reused for every word,
+	 * moving to each word through {@link #wordIndex}.
+	 */
+	private static final class Fold implements WordFunction {
+
+		/**
+		 * The {@link WordBiFunction} folded over each word.
+		 */
+		private final WordBiFunction function;
+
+		/**
+		 * The {@link BitSet}s whose words are folded, in order.
+		 */
+		private final BitSet[] sets;
+
+		/**
+		 * The index of the word currently being folded.
+		 */
+		private int wordIndex;
+
+		/**
+		 * Creates a {@link Fold} of the specified <b>function</b> over the words of
+		 * the specified <b>sets</b>.
+		 * 
+		 * @param function the {@link WordBiFunction} to fold.
+		 * @param sets     the {@link BitSet}s whose words are folded, in order.
+		 */
+		Fold(final WordBiFunction function, final BitSet[] sets) {
+			this.function = function;
+			this.sets = sets;
+		}
+
+		@Override
+		public long apply(final long word) {
+			long result = word;
+			for (final BitSet set : sets) {
+				result = function.apply(result, set.getWord(wordIndex));
+			}
+			return result;
+		}
+
 	}
 
-}
\ No newline at end of file
+}
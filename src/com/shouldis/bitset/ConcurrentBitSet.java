@@ -2,6 +2,11 @@ package com.shouldis.bitset;
 
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
 /**
  * Implementation of {@link BitSet} in which all methods capable of reading or
@@ -25,6 +30,8 @@ import java.lang.invoke.VarHandle;
  * <li>{@link #setWord(int, long)}</li>
  * <li>{@link #andWord(int, long)}</li>
  * <li>{@link #orWord(int, long)}</li>
+ * <li>{@link #getAndOrWord(int, long)}</li>
+ * <li>{@link #compareAndSetWord(int, long, long)}</li>
  * <li>{@link #xOrWord(int, long)}</li>
  * <li>{@link #flipWord(int)}</li>
  * <li>{@link #fillWord(int)}</li>
@@ -39,11 +46,48 @@ import java.lang.invoke.VarHandle;
  * return {@code false} under two separate conditions: either encountering
  * memory contention, or when {@link #add(int)} or {@link #remove(int)} would
  * typically return {@code false}.
+ * <p>
+ * When {@link #tracked}, the change in population caused by each operation is
+ * derived from the previous value of the word returned by the atomic operation,
+ * and accumulated within a {@link LongAdder} to avoid contention between
+ * threads modifying different words.
+ * <p>
+ * Reads spanning more than 1 word can observe a state which never existed
+ * while other threads are writing. When {@link #consistent}, every modification
+ * is counted before and after it is made, in the manner of a sequence lock, so
+ * that {@link #read(Function)} can retry a multi-word read until no writer
+ * intervened. Modifications are counted separately for each region of 64
+ * words, so a reader never waits for the whole set to become idle, only for
+ * writes already in progress, and only retries when a write begins while it
+ * reads. A reader which has retried many times holds writers back until it
+ * completes, so readers can't be starved by a steady stream of writes, and
+ * writers otherwise never wait for readers. {@link #population()}, {@link #hashCode()} and
+ * {@link #equals(Object)} are performed through {@link #read(Function)} when
+ * {@link #consistent}, and the range operations {@link #set(int, int)},
+ * {@link #clear(int, int)} and {@link #flip(int, int)} are counted as a single
+ * modification, making them atomic to {@link #read(Function)}.
+ * {@link #compareAndSetRange(int, int)} and
+ * {@link #compareAndClearRange(int, int)} change a range of bits only if all of
+ * them are in the opposite state, allowing ranges to be reserved without a
+ * global lock. Such a claim briefly owns the words of its range, and writers of
+ * those words wait for it to finish rather than observe it in progress, so
+ * claims block rather than being lock-free.
+ * <p>
+ * Readers and writers which don't require volatile semantics on every word can
+ * use {@link #getWord(int, Ordering)} and {@link #setWord(int, long, Ordering)}
+ * with a weaker {@link Ordering}, or read through {@link #view(Ordering)},
+ * which shares {@link #words} and reads each word with that {@link Ordering},
+ * for bulk reads such as iteration. {@link #population()} reads each word with
+ * acquire semantics when not {@link #tracked}.
+ * <p>
+ * The position of each word within {@link #words} is determined by
+ * {@link #index(int)}, which {@link StripedBitSet} overrides to keep threads
+ * modifying different regions of words from sharing cache lines.
  * 
  * @author Aaron Shouldis
  * @see BitSet
  */
-public final class ConcurrentBitSet extends BitSet {
+public class ConcurrentBitSet extends BitSet {
 
 	private static final long serialVersionUID = 1L;
 
@@ -52,6 +96,59 @@ public final class ConcurrentBitSet extends BitSet {
 	 */
 	private static final VarHandle HANDLE = MethodHandles.arrayElementVarHandle(long[].class);
 
+	/**
+	 * log<sub>2</sub> of the number of words whose modifications are counted
+	 * together within {@link #sequences}.
+	 */
+	private static final int LOG_2_REGION_WORDS = 6;
+
+	/**
+	 * log<sub>2</sub> of the number of elements of {@link #sequences} reserved for
+	 * each region, such that the counts of each region occupy their own cache
+	 * line.
+	 */
+	private static final int LOG_2_REGION_STRIDE = 3;
+
+	/**
+	 * The number of times {@link #read(Function)} is attempted before writers are
+	 * held back.
+	 */
+	private static final int READ_ATTEMPTS = 64;
+
+	/**
+	 * The tracked population of this {@link ConcurrentBitSet}, or null if it isn't
+	 * {@link #tracked}.
+	 */
+	private final LongAdder counter;
+
+	/**
+	 * Whether modifications are counted within {@link #sequences}, allowing
+	 * {@link #read(Function)} to produce consistent results.
+	 */
+	public final boolean consistent;
+
+	/**
+	 * The number of modifications which have begun and completed within each
+	 * region of words, held by the first and second elements of the region's
+	 * stride, or null if this {@link ConcurrentBitSet} isn't {@link #consistent}.
+	 */
+	private final long[] sequences;
+
+	/**
+	 * The number of readers holding writers back after failing to read
+	 * optimistically, or null if this {@link ConcurrentBitSet} isn't
+	 * {@link #consistent}.
+	 */
+	private final AtomicInteger holds;
+
+	/**
+	 * Holds a <i>live</i> bit for each word owned by a claim made through
+	 * {@link #compareAndSetRange(int, int)} or
+	 * {@link #compareAndClearRange(int, int)}, or null if this
+	 * {@link ConcurrentBitSet} isn't {@link #consistent}.
+	 */
+	private final long[] owners;
+
 	/**
 	 * Creates a {@link ConcurrentBitSet} with the specified <b>size</b>.
 	 * 
@@ -60,7 +157,66 @@ public final class ConcurrentBitSet extends BitSet {
 	 * @see BitSet#BitSet(int)
 	 */
 	public ConcurrentBitSet(final int size) {
-		super(size);
+		this(size, false);
+	}
+
+	/**
+	 * Creates a {@link ConcurrentBitSet} with the specified <b>size</b>, which will
+	 * keep its population current on every modification if <b>tracked</b> is
+	 * {@code true}.
+	 * 
+	 * @param size    the number of indices that this {@link BitSet} will hold.
+	 * @param tracked whether the population should be maintained as words are
+	 *                modified.
+	 * @throws IllegalArgumentException if <b>size</b> is less than 0.
+	 * @see BitSet#BitSet(int, boolean)
+	 */
+	public ConcurrentBitSet(final int size, final boolean tracked) {
+		this(size, tracked, false);
+	}
+
+	/**
+	 * Creates a {@link ConcurrentBitSet} with the specified <b>size</b>, which will
+	 * keep its population current on every modification if <b>tracked</b> is
+	 * {@code true}, and will allow consistent multi-word reads through
+	 * {@link #read(Function)} if <b>consistent</b> is {@code true}.
+	 * 
+	 * @param size       the number of indices that this {@link BitSet} will hold.
+	 * @param tracked    whether the population should be maintained as words are
+	 *                   modified.
+	 * @param consistent whether modifications should be counted to allow
+	 *                   consistent multi-word reads.
+	 * @throws IllegalArgumentException if <b>size</b> is less than 0.
+	 * @see BitSet#BitSet(int, boolean)
+	 */
+	public ConcurrentBitSet(final int size, final boolean tracked, final boolean consistent) {
+		this(size, tracked, consistent, new long[BitSet.countWords(size)]);
+	}
+
+	/**
+	 * Creates a {@link ConcurrentBitSet} with the specified <b>size</b>, in the
+	 * manner of {@link #ConcurrentBitSet(int, boolean, boolean)}, using the
+	 * specified array <b>words</b> as {@link #words}. Implementations arranging
+	 * their words differently within <b>words</b> override {@link #index(int)}.
+	 * 
+	 * @param size       the number of indices that this {@link BitSet} will hold.
+	 * @param tracked    whether the population should be maintained as words are
+	 *                   modified.
+	 * @param consistent whether modifications should be counted to allow
+	 *                   consistent multi-word reads.
+	 * @param words      the array to be used as {@link #words}, holding every index
+	 *                   returned by {@link #index(int)}.
+	 * @throws IllegalArgumentException if <b>size</b> is less than 0.
+	 * @throws NullPointerException     if <b>words</b> is null.
+	 * @see BitSet#BitSet(int, boolean, long[])
+	 */
+	protected ConcurrentBitSet(final int size, final boolean tracked, final boolean consistent, final long[] words) {
+		super(size, tracked, words);
+		counter = tracked ? new LongAdder() : null;
+		this.consistent = consistent;
+		sequences = consistent ? new long[ConcurrentBitSet.region(wordCount + (1 << LOG_2_REGION_WORDS) - 1) << LOG_2_REGION_STRIDE] : null;
+		holds = consistent ? new AtomicInteger() : null;
+		owners = consistent ? new long[BitSet.countWords(wordCount)] : null;
 	}
 
 	/**
@@ -73,36 +229,375 @@ public final class ConcurrentBitSet extends BitSet {
 	 */
 	public ConcurrentBitSet(final BitSet set) {
 		super(set);
+		counter = null;
+		consistent = false;
+		sequences = null;
+		holds = null;
+		owners = null;
+	}
+
+	/**
+	 * Calculates the index within {@link #words} at which the word with the
+	 * specified <b>wordIndex</b> is stored, which is <b>wordIndex</b> itself
+	 * unless overridden. Every atomic operation of this {@link ConcurrentBitSet}
+	 * locates its word through this method, so implementations may arrange words
+	 * differently, as {@link StripedBitSet} does to separate regions of words by
+	 * padding. Indices outside of the range [0, {@link #wordCount}) must be mapped
+	 * outside of {@link #words}.
+	 * 
+	 * @param wordIndex the index of the word in the usual order.
+	 * @return the index of the word within {@link #words}.
+	 */
+	protected int index(final int wordIndex) {
+		return wordIndex;
 	}
 
 	@Override
 	public boolean add(final int index) {
 		final int wordIndex = BitSet.divideSize(index);
-		final long mask = BitSet.bitMask(index);
-		long expected, replacment;
-		do {
-			expected = getWord(wordIndex);
-			if ((expected & mask) != BitSet.DEAD) {
-				return false;
+		begin(wordIndex);
+		try {
+			final long mask = BitSet.bitMask(index);
+			long expected, replacment;
+			do {
+				expected = getWord(wordIndex);
+				if ((expected & mask) != BitSet.DEAD) {
+					return false;
+				}
+				replacment = expected | mask;
+			} while (!HANDLE.compareAndSet(words, index(wordIndex), expected, replacment));
+			if (tracked) {
+				counter.increment();
 			}
-			replacment = expected | mask;
-		} while (!HANDLE.compareAndSet(words, wordIndex, expected, replacment));
-		return true;
+			return true;
+		} finally {
+			end(wordIndex);
+		}
 	}
 
 	@Override
 	public boolean remove(final int index) {
 		final int wordIndex = BitSet.divideSize(index);
-		final long mask = ~BitSet.bitMask(index);
-		long expected, replacment;
-		do {
-			expected = getWord(wordIndex);
-			if ((expected | mask) != BitSet.LIVE) {
-				return false;
+		begin(wordIndex);
+		try {
+			final long mask = ~BitSet.bitMask(index);
+			long expected, replacment;
+			do {
+				expected = getWord(wordIndex);
+				if ((expected | mask) != BitSet.LIVE) {
+					return false;
+				}
+				replacment = expected & mask;
+			} while (!HANDLE.compareAndSet(words, index(wordIndex), expected, replacment));
+			if (tracked) {
+				counter.decrement();
+			}
+			return true;
+		} finally {
+			end(wordIndex);
+		}
+	}
+
+	/**
+	 * Changes the state of all bits in the specified range [<b>from</b>,
+	 * <b>to</b>) to the <i>live</i> state. No action is taken if <b>from</b> is
+	 * equal to <b>to</b>. When {@link #consistent}, the range is changed as a
+	 * single modification, so {@link #read(Function)} never observes it partially
+	 * applied. Otherwise, each word is changed by a single atomic operation.
+	 * 
+	 * @param from (inclusive) the index of the first bit to be changed to the
+	 *             <i>live</i> state.
+	 * @param to   (exclusive) the end of the range of bits to be changed to the
+	 *             <i>live</i> state.
+	 * @throws IndexOutOfBoundsException if <b>from</b> or <b>to</b> are outside of
+	 *                                   the range [0, {@link #size}], or
+	 *                                   <b>from</b> is greater than <b>to</b>.
+	 */
+	@Override
+	public void set(final int from, final int to) {
+		if (consistent) {
+			modifyRange(from, to, WordBiFunction.OR);
+		} else {
+			super.set(from, to);
+		}
+	}
+
+	/**
+	 * Changes the state of all bits in the specified range [<b>from</b>,
+	 * <b>to</b>) to the <i>dead</i> state. No action is taken if <b>from</b> is
+	 * equal to <b>to</b>. When {@link #consistent}, the range is changed as a
+	 * single modification, so {@link #read(Function)} never observes it partially
+	 * applied. Otherwise, each word is changed by a single atomic operation.
+	 * 
+	 * @param from (inclusive) the index of the first bit to be changed to the
+	 *             <i>dead</i> state.
+	 * @param to   (exclusive) the end of the range of bits to be changed to the
+	 *             <i>dead</i> state.
+	 * @throws IndexOutOfBoundsException if <b>from</b> or <b>to</b> are outside of
+	 *                                   the range [0, {@link #size}], or
+	 *                                   <b>from</b> is greater than <b>to</b>.
+	 */
+	@Override
+	public void clear(final int from, final int to) {
+		if (consistent) {
+			modifyRange(from, to, (final long word, final long mask) -> word & ~mask);
+		} else {
+			super.clear(from, to);
+		}
+	}
+
+	/**
+	 * Changes the state of all bits in the specified range [<b>from</b>,
+	 * <b>to</b>) to their opposite. No action is taken if <b>from</b> is equal to
+	 * <b>to</b>. When {@link #consistent}, the range is changed as a single
+	 * modification, so {@link #read(Function)} never observes it partially
+	 * applied. Otherwise, each word is changed by a single atomic operation.
+	 * 
+	 * @param from (inclusive) the index of the first bit to be flipped.
+	 * @param to   (exclusive) the end of the range of bits to be flipped.
+	 * @throws IndexOutOfBoundsException if <b>from</b> or <b>to</b> are outside of
+	 *                                   the range [0, {@link #size}], or
+	 *                                   <b>from</b> is greater than <b>to</b>.
+	 */
+	@Override
+	public void flip(final int from, final int to) {
+		if (consistent) {
+			modifyRange(from, to, WordBiFunction.XOR);
+		} else {
+			super.flip(from, to);
+		}
+	}
+
+	/**
+	 * Applies the specified <b>function</b> to each word overlapping the range
+	 * [<b>from</b>, <b>to</b>), with the mask of bits within the range, as a
+	 * single modification. No action is taken if <b>from</b> is equal to
+	 * <b>to</b>.
+	 * 
+	 * @param from     (inclusive) the index of the first bit to be changed.
+	 * @param to       (exclusive) the end of the range of bits to be changed.
+	 * @param function the {@link WordBiFunction} to apply to each word.
+	 * @throws IndexOutOfBoundsException if <b>from</b> or <b>to</b> are outside of
+	 *                                   the range [0, {@link #size}], or
+	 *                                   <b>from</b> is greater than <b>to</b>.
+	 */
+	private void modifyRange(final int from, final int to, final WordBiFunction function) {
+		Objects.checkFromToIndex(from, to, size);
+		if (from == to) {
+			return;
+		}
+		final int first = BitSet.divideSize(from);
+		final int last = BitSet.divideSize(to - 1);
+		begin(first, last, false);
+		try {
+			for (int i = first; i <= last; i++) {
+				final long mask = ConcurrentBitSet.rangeMask(i, from, to);
+				long expected, replacment;
+				do {
+					expected = getWord(i);
+					replacment = function.apply(expected, mask);
+				} while (!HANDLE.compareAndSet(words, index(i), expected, replacment));
+				if (tracked) {
+					track(expected, replacment);
+				}
+			}
+		} finally {
+			end(first, last);
+		}
+	}
+
+	/**
+	 * Changes the state of all bits in the specified range [<b>from</b>,
+	 * <b>to</b>) to the <i>live</i> state, only if they are all in the
+	 * <i>dead</i> state, as a single atomic operation. This allows ranges to be
+	 * reserved without a global lock: of two overlapping ranges, at most one can
+	 * be claimed. Claims rely on the modifications of a {@link #consistent}
+	 * {@link ConcurrentBitSet} being counted.
+	 * <p>
+	 * Claims block rather than being lock-free. The words overlapping the range
+	 * are first marked as owned by the claim, in ascending order, waiting for any
+	 * other claim which owns one of them to finish. The claim then waits for the
+	 * modifications already in progress within the regions of 64 words holding
+	 * the range, without waiting for writers elsewhere in the set, and checks and
+	 * changes the range as a single modification. Writers of an owned word wait
+	 * until the claim finishes, so a thread suspended while claiming delays the
+	 * writers of the words it owns, and a steady stream of writes within the same
+	 * regions delays the claim. No word is changed unless every bit of the range
+	 * is <i>dead</i>, so a failed claim leaves nothing to be undone, and neither
+	 * readers nor other writers ever observe a claim which doesn't succeed.
+	 * Claims are ordered by the first word they share, so two overlapping claims
+	 * never fail because of one another, and only fail if the range holds a
+	 * <i>live</i> bit once the other has finished.
+	 * 
+	 * @param from (inclusive) the index of the first bit to be claimed.
+	 * @param to   (exclusive) the end of the range of bits to be claimed.
+	 * @return whether or not all bits within the range were changed.
+	 * @throws UnsupportedOperationException if this {@link ConcurrentBitSet} isn't
+	 *                                       {@link #consistent}.
+	 * @throws IndexOutOfBoundsException     if <b>from</b> or <b>to</b> are outside
+	 *                                       of the range [0, {@link #size}], or
+	 *                                       <b>from</b> is greater than <b>to</b>.
+	 */
+	public boolean compareAndSetRange(final int from, final int to) {
+		return claimRange(from, to, true);
+	}
+
+	/**
+	 * Changes the state of all bits in the specified range [<b>from</b>,
+	 * <b>to</b>) to the <i>dead</i> state, only if they are all in the
+	 * <i>live</i> state, in the manner of {@link #compareAndSetRange(int, int)}.
+	 * 
+	 * @param from (inclusive) the index of the first bit to be released.
+	 * @param to   (exclusive) the end of the range of bits to be released.
+	 * @return whether or not all bits within the range were changed.
+	 * @throws UnsupportedOperationException if this {@link ConcurrentBitSet} isn't
+	 *                                       {@link #consistent}.
+	 * @throws IndexOutOfBoundsException     if <b>from</b> or <b>to</b> are outside
+	 *                                       of the range [0, {@link #size}], or
+	 *                                       <b>from</b> is greater than <b>to</b>.
+	 */
+	public boolean compareAndClearRange(final int from, final int to) {
+		return claimRange(from, to, false);
+	}
+
+	/**
+	 * Changes the state of all bits in the specified range [<b>from</b>,
+	 * <b>to</b>) to the specified state, only if they are all in the opposite
+	 * state. The words of the range are owned by the calling thread while they are
+	 * checked and changed, so no other modification can intervene.
+	 * 
+	 * @param from (inclusive) the index of the first bit to be changed.
+	 * @param to   (exclusive) the end of the range of bits to be changed.
+	 * @param live whether the bits are changed to the <i>live</i> state rather
+	 *             than the <i>dead</i> state.
+	 * @return whether or not all bits within the range were changed.
+	 */
+	private boolean claimRange(final int from, final int to, final boolean live) {
+		if (!consistent) {
+			throw new UnsupportedOperationException();
+		}
+		Objects.checkFromToIndex(from, to, size);
+		if (from == to) {
+			return true;
+		}
+		final int first = BitSet.divideSize(from);
+		final int last = BitSet.divideSize(to - 1);
+		int owned = first;
+		try {
+			for (; owned <= last; owned++) {
+				acquire(owned);
+			}
+			awaitWriters(first, last);
+			begin(first, last, true);
+			try {
+				for (int i = first; i <= last; i++) {
+					final long word = getWord(i);
+					if (((live ? word : ~word) & ConcurrentBitSet.rangeMask(i, from, to)) != BitSet.DEAD) {
+						return false;
+					}
+				}
+				for (int i = first; i <= last; i++) {
+					final long mask = ConcurrentBitSet.rangeMask(i, from, to);
+					if (live) {
+						final long previous = (long) HANDLE.getAndBitwiseOr(words, index(i), mask);
+						if (tracked) {
+							track(previous, previous | mask);
+						}
+					} else {
+						final long previous = (long) HANDLE.getAndBitwiseAnd(words, index(i), ~mask);
+						if (tracked) {
+							track(previous, previous & ~mask);
+						}
+					}
+				}
+				return true;
+			} finally {
+				end(first, last);
+			}
+		} finally {
+			while (--owned >= first) {
+				HANDLE.getAndBitwiseAnd(owners, BitSet.divideSize(owned), ~BitSet.bitMask(owned));
+			}
+		}
+	}
+
+	/**
+	 * Marks the word at the specified <b>wordIndex</b> as owned by the calling
+	 * thread within {@link #owners}, waiting for any other claim which owns it to
+	 * release it.
+	 * 
+	 * @param wordIndex the index of the word to own.
+	 */
+	private void acquire(final int wordIndex) {
+		final int ownerIndex = BitSet.divideSize(wordIndex);
+		final long mask = BitSet.bitMask(wordIndex);
+		while (((long) HANDLE.getAndBitwiseOr(owners, ownerIndex, mask) & mask) != BitSet.DEAD) {
+			do {
+				Thread.onSpinWait();
+			} while (((long) HANDLE.getVolatile(owners, ownerIndex) & mask) != BitSet.DEAD);
+		}
+	}
+
+	/**
+	 * Waits until no modification of the words in the range [<b>first</b>,
+	 * <b>last</b>] is in progress, observing each region they occupy idle in
+	 * turn. Every modification which begins afterward observes the words already
+	 * marked within {@link #owners}, and the readers counted by {@link #holds}.
+	 * 
+	 * @param first (inclusive) the index of the first word.
+	 * @param last  (inclusive) the index of the last word.
+	 */
+	private void awaitWriters(final int first, final int last) {
+		for (int region = ConcurrentBitSet.region(first); region <= ConcurrentBitSet.region(last); region++) {
+			final int index = region << LOG_2_REGION_STRIDE;
+			while ((long) HANDLE.getVolatile(sequences, index + 1) != (long) HANDLE.getVolatile(sequences, index)) {
+				Thread.onSpinWait();
 			}
-			replacment = expected & mask;
-		} while (!HANDLE.compareAndSet(words, wordIndex, expected, replacment));
-		return true;
+		}
+	}
+
+	/**
+	 * Determines whether any word in the range [<b>first</b>, <b>last</b>] is
+	 * owned by a claim in progress.
+	 * 
+	 * @param first (inclusive) the index of the first word.
+	 * @param last  (inclusive) the index of the last word.
+	 * @return whether or not any word within the range is owned, which is
+	 *         {@code false} if the range lies outside of [0, {@link #wordCount}).
+	 */
+	private boolean owned(final int first, final int last) {
+		if (first < 0 || last >= wordCount || first > last) {
+			return false;
+		}
+		final int start = BitSet.divideSize(first);
+		final int stop = BitSet.divideSize(last);
+		for (int i = start; i <= stop; i++) {
+			final long mask = ConcurrentBitSet.rangeMask(i, first, last + 1);
+			if (((long) HANDLE.getVolatile(owners, i) & mask) != BitSet.DEAD) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Calculates the mask of bits within the word at the specified
+	 * <b>wordIndex</b> which lie in the range [<b>from</b>, <b>to</b>).
+	 * 
+	 * @param wordIndex the index of a word overlapping the range.
+	 * @param from      (inclusive) the index of the first bit of the range.
+	 * @param to        (exclusive) the end of the range.
+	 * @return the mask of bits within the range.
+	 */
+	private static long rangeMask(final int wordIndex, final int from, final int to) {
+		long mask = BitSet.LIVE;
+		if (wordIndex == BitSet.divideSize(from)) {
+			mask &= BitSet.LIVE << from;
+		}
+		if (wordIndex == BitSet.divideSize(to - 1)) {
+			mask &= BitSet.LIVE >>> -to;
+		}
+		return mask;
 	}
 
 	/**
@@ -119,9 +614,20 @@ public final class ConcurrentBitSet extends BitSet {
 	 */
 	public boolean tryAdd(final int index) {
 		final int wordIndex = BitSet.divideSize(index);
-		final long mask = BitSet.bitMask(index);
-		final long expected = getWord(wordIndex);
-		return (expected & mask) == BitSet.DEAD && HANDLE.compareAndSet(words, wordIndex, expected, expected | mask);
+		begin(wordIndex);
+		try {
+			final long mask = BitSet.bitMask(index);
+			final long expected = getWord(wordIndex);
+			if ((expected & mask) != BitSet.DEAD || !HANDLE.compareAndSet(words, index(wordIndex), expected, expected | mask)) {
+				return false;
+			}
+			if (tracked) {
+				counter.increment();
+			}
+			return true;
+		} finally {
+			end(wordIndex);
+		}
 	}
 
 	/**
@@ -138,34 +644,92 @@ public final class ConcurrentBitSet extends BitSet {
 	 */
 	public boolean tryRemove(final int index) {
 		final int wordIndex = BitSet.divideSize(index);
-		final long mask = ~BitSet.bitMask(index);
-		final long expected = getWord(wordIndex);
-		return (expected | mask) == BitSet.LIVE && HANDLE.compareAndSet(words, wordIndex, expected, expected & mask);
+		begin(wordIndex);
+		try {
+			final long mask = ~BitSet.bitMask(index);
+			final long expected = getWord(wordIndex);
+			if ((expected | mask) != BitSet.LIVE || !HANDLE.compareAndSet(words, index(wordIndex), expected, expected & mask)) {
+				return false;
+			}
+			if (tracked) {
+				counter.decrement();
+			}
+			return true;
+		} finally {
+			end(wordIndex);
+		}
 	}
 
 	@Override
 	public long getWord(final int wordIndex) {
-		return (long) HANDLE.getVolatile(words, wordIndex);
+		return (long) HANDLE.getVolatile(words, index(wordIndex));
 	}
 
 	@Override
 	public void setWord(final int wordIndex, final long word) {
-		HANDLE.setVolatile(words, wordIndex, word);
+		begin(wordIndex);
+		try {
+			if (tracked) {
+				track((long) HANDLE.getAndSet(words, index(wordIndex), word), word);
+			} else {
+				HANDLE.setVolatile(words, index(wordIndex), word);
+			}
+		} finally {
+			end(wordIndex);
+		}
 	}
 
 	@Override
 	public void andWord(final int wordIndex, final long mask) {
-		HANDLE.getAndBitwiseAnd(words, wordIndex, mask);
+		begin(wordIndex);
+		try {
+			final long previous = (long) HANDLE.getAndBitwiseAnd(words, index(wordIndex), mask);
+			if (tracked) {
+				track(previous, previous & mask);
+			}
+		} finally {
+			end(wordIndex);
+		}
 	}
 
 	@Override
 	public void orWord(final int wordIndex, final long mask) {
-		HANDLE.getAndBitwiseOr(words, wordIndex, mask);
+		begin(wordIndex);
+		try {
+			final long previous = (long) HANDLE.getAndBitwiseOr(words, index(wordIndex), mask);
+			if (tracked) {
+				track(previous, previous | mask);
+			}
+		} finally {
+			end(wordIndex);
+		}
+	}
+
+	@Override
+	public long getAndOrWord(final int wordIndex, final long mask) {
+		begin(wordIndex);
+		try {
+			final long previous = (long) HANDLE.getAndBitwiseOr(words, index(wordIndex), mask);
+			if (tracked) {
+				track(previous, previous | mask);
+			}
+			return previous;
+		} finally {
+			end(wordIndex);
+		}
 	}
 
 	@Override
 	public void xOrWord(final int wordIndex, final long mask) {
-		HANDLE.getAndBitwiseXor(words, wordIndex, mask);
+		begin(wordIndex);
+		try {
+			final long previous = (long) HANDLE.getAndBitwiseXor(words, index(wordIndex), mask);
+			if (tracked) {
+				track(previous, previous ^ mask);
+			}
+		} finally {
+			end(wordIndex);
+		}
 	}
 
 	@Override
@@ -185,29 +749,82 @@ public final class ConcurrentBitSet extends BitSet {
 
 	@Override
 	public void setWordSegment(final int wordIndex, final long word, final long mask) {
-		long expected, replacment;
-		do {
-			expected = getWord(wordIndex);
-			replacment = (mask & word) | (~mask & expected);
-		} while (!HANDLE.compareAndSet(words, wordIndex, expected, replacment));
+		begin(wordIndex);
+		try {
+			long expected, replacment;
+			do {
+				expected = getWord(wordIndex);
+				replacment = (mask & word) | (~mask & expected);
+			} while (!HANDLE.compareAndSet(words, index(wordIndex), expected, replacment));
+			if (tracked) {
+				track(expected, replacment);
+			}
+		} finally {
+			end(wordIndex);
+		}
 	}
 
 	@Override
 	public void apply(final int wordIndex, final WordFunction function) {
-		long expected, replacment;
-		do {
-			expected = getWord(wordIndex);
-			replacment = function.apply(expected);
-		} while (!HANDLE.compareAndSet(words, wordIndex, expected, replacment));
+		begin(wordIndex);
+		try {
+			long expected, replacment;
+			do {
+				expected = getWord(wordIndex);
+				replacment = function.apply(expected);
+			} while (!HANDLE.compareAndSet(words, index(wordIndex), expected, replacment));
+			if (tracked) {
+				track(expected, replacment);
+			}
+		} finally {
+			end(wordIndex);
+		}
 	}
 
 	@Override
 	public void apply(final int wordIndex, final WordBiFunction function, final long mask) {
-		long expected, replacment;
-		do {
-			expected = getWord(wordIndex);
-			replacment = function.apply(expected, mask);
-		} while (!HANDLE.compareAndSet(words, wordIndex, expected, replacment));
+		begin(wordIndex);
+		try {
+			long expected, replacment;
+			do {
+				expected = getWord(wordIndex);
+				replacment = function.apply(expected, mask);
+			} while (!HANDLE.compareAndSet(words, index(wordIndex), expected, replacment));
+			if (tracked) {
+				track(expected, replacment);
+			}
+		} finally {
+			end(wordIndex);
+		}
+	}
+
+	/**
+	 * Changes the word at the specified <b>wordIndex</b> to the specified
+	 * <b>word</b>, only if its current value is equal to <b>expected</b>, as a
+	 * single atomic operation.
+	 * 
+	 * @param wordIndex the index within {@link #words} to change.
+	 * @param expected  the value the word must hold to be changed.
+	 * @param word      the new value of the word.
+	 * @return whether or not the word was changed, meaning it held
+	 *         <b>expected</b>.
+	 * @throws ArrayIndexOutOfBoundsException if <b>wordIndex</b> is negative, or
+	 *                                        greater than or equal to
+	 *                                        {@link #wordCount}.
+	 */
+	public boolean compareAndSetWord(final int wordIndex, final long expected, final long word) {
+		begin(wordIndex);
+		try {
+			if (!HANDLE.compareAndSet(words, index(wordIndex), expected, word)) {
+				return false;
+			}
+			if (tracked) {
+				track(expected, word);
+			}
+			return true;
+		} finally {
+			end(wordIndex);
+		}
 	}
 
 	/**
@@ -223,8 +840,20 @@ public final class ConcurrentBitSet extends BitSet {
 	 *         didn't encounter any memory contention.
 	 */
 	public boolean tryApply(final int wordIndex, final WordFunction function) {
-		final long expected = getWord(wordIndex);
-		return HANDLE.compareAndSet(words, wordIndex, expected, function.apply(expected));
+		begin(wordIndex);
+		try {
+			final long expected = getWord(wordIndex);
+			final long replacment = function.apply(expected);
+			if (!HANDLE.compareAndSet(words, index(wordIndex), expected, replacment)) {
+				return false;
+			}
+			if (tracked) {
+				track(expected, replacment);
+			}
+			return true;
+		} finally {
+			end(wordIndex);
+		}
 	}
 
 	/**
@@ -242,8 +871,586 @@ public final class ConcurrentBitSet extends BitSet {
 	 *         didn't encounter any memory contention.
 	 */
 	public boolean tryApply(final int wordIndex, final WordBiFunction function, final long mask) {
-		final long expected = getWord(wordIndex);
-		return HANDLE.compareAndSet(words, wordIndex, expected, function.apply(expected, mask));
+		begin(wordIndex);
+		try {
+			final long expected = getWord(wordIndex);
+			final long replacment = function.apply(expected, mask);
+			if (!HANDLE.compareAndSet(words, index(wordIndex), expected, replacment)) {
+				return false;
+			}
+			if (tracked) {
+				track(expected, replacment);
+			}
+			return true;
+		} finally {
+			end(wordIndex);
+		}
+	}
+
+	/**
+	 * Applies the specified <b>function</b> to this {@link ConcurrentBitSet},
+	 * retrying until it completes without any modification being made
+	 * concurrently, such that the result reflects a state of all words which
+	 * existed at a single point in time. Each attempt begins once every region of
+	 * words has been observed without a modification in progress, and is
+	 * discarded if a modification began during it, so the <b>function</b> may be
+	 * applied more than once and should be free of side effects. After
+	 * {@link #READ_ATTEMPTS} discarded attempts, new modifications are held back
+	 * until the <b>function</b> has been applied once more, so that a steady
+	 * stream of writes can't starve the reader. A consistent copy can be made by
+	 * supplying {@link BitSet#BitSet(BitSet)}.
+	 * 
+	 * @param <R>      the type of the result of <b>function</b>.
+	 * @param function the read-only operation to perform.
+	 * @return the result of the first application of <b>function</b> which did not
+	 *         overlap a modification.
+	 * @throws UnsupportedOperationException if this {@link ConcurrentBitSet} isn't
+	 *                                       {@link #consistent}.
+	 * @throws NullPointerException          if <b>function</b> is null.
+	 */
+	public <R> R read(final Function<? super BitSet, R> function) {
+		if (!consistent) {
+			throw new UnsupportedOperationException();
+		}
+		for (int attempt = 0; attempt < READ_ATTEMPTS; attempt++) {
+			final long sequence = sequence();
+			if (sequence >= 0L) {
+				final R result = function.apply(this);
+				VarHandle.acquireFence();
+				if (sequence() == sequence) {
+					return result;
+				}
+			}
+			Thread.onSpinWait();
+		}
+		holds.incrementAndGet();
+		try {
+			awaitWriters(0, wordCount - 1);
+			return function.apply(this);
+		} finally {
+			holds.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Sums the number of modifications which have begun within every region of
+	 * words, observing each region in turn.
+	 * 
+	 * @return the number of modifications begun, or -1 if any region was observed
+	 *         with a modification in progress.
+	 */
+	private long sequence() {
+		long sequence = 0L;
+		for (int index = 0; index < sequences.length; index += 1 << LOG_2_REGION_STRIDE) {
+			final long completed = (long) HANDLE.getVolatile(sequences, index + 1);
+			final long begun = (long) HANDLE.getVolatile(sequences, index);
+			if (begun != completed) {
+				return -1L;
+			}
+			sequence += begun;
+		}
+		return sequence;
+	}
+
+	/**
+	 * Marks the beginning of a modification of the word at the specified
+	 * <b>wordIndex</b> if this {@link ConcurrentBitSet} is {@link #consistent}.
+	 * Must be followed by {@link #end(int)}.
+	 * 
+	 * @param wordIndex the index of the word to be modified.
+	 */
+	private void begin(final int wordIndex) {
+		begin(wordIndex, wordIndex, false);
+	}
+
+	/**
+	 * Marks the beginning of a modification of the words in the range
+	 * [<b>first</b>, <b>last</b>] if this {@link ConcurrentBitSet} is
+	 * {@link #consistent}, waiting while a reader counted by {@link #holds} is
+	 * holding writers back, or while any of the words is owned by a claim in
+	 * progress other than the caller's. Must be followed by
+	 * {@link #end(int, int)}.
+	 * 
+	 * @param first (inclusive) the index of the first word to be modified.
+	 * @param last  (inclusive) the index of the last word to be modified.
+	 * @param owner whether the caller owns the words through {@link #owners}.
+	 */
+	private void begin(final int first, final int last, final boolean owner) {
+		if (consistent) {
+			count(first, last, 0);
+			while (blocked(first, last, owner)) {
+				count(first, last, 1);
+				do {
+					Thread.onSpinWait();
+				} while (blocked(first, last, owner));
+				count(first, last, 0);
+			}
+		}
+	}
+
+	/**
+	 * Marks the end of a modification begun by {@link #begin(int)} if this
+	 * {@link ConcurrentBitSet} is {@link #consistent}.
+	 * 
+	 * @param wordIndex the index of the word modified.
+	 */
+	private void end(final int wordIndex) {
+		end(wordIndex, wordIndex);
+	}
+
+	/**
+	 * Marks the end of a modification begun by
+	 * {@link #begin(int, int, boolean)} if this {@link ConcurrentBitSet} is
+	 * {@link #consistent}.
+	 * 
+	 * @param first (inclusive) the index of the first word modified.
+	 * @param last  (inclusive) the index of the last word modified.
+	 */
+	private void end(final int first, final int last) {
+		if (consistent) {
+			count(first, last, 1);
+		}
+	}
+
+	/**
+	 * Determines whether a modification of the words in the range [<b>first</b>,
+	 * <b>last</b>] must wait before beginning.
+	 * 
+	 * @param first (inclusive) the index of the first word to be modified.
+	 * @param last  (inclusive) the index of the last word to be modified.
+	 * @param owner whether the caller owns the words through {@link #owners}.
+	 * @return whether a reader is holding writers back, or another claim owns any
+	 *         of the words.
+	 */
+	private boolean blocked(final int first, final int last, final boolean owner) {
+		return holds.get() != 0 || !owner && owned(first, last);
+	}
+
+	/**
+	 * Increments the count at the specified <b>offset</b> within the stride of
+	 * each region occupied by the words in the range [<b>first</b>,
+	 * <b>last</b>].
+	 * 
+	 * @param first  (inclusive) the index of the first word.
+	 * @param last   (inclusive) the index of the last word.
+	 * @param offset 0 to count the beginning of a modification, or 1 to count its
+	 *               end.
+	 * @throws ArrayIndexOutOfBoundsException if a word lies outside of every
+	 *                                        region.
+	 */
+	private void count(final int first, final int last, final int offset) {
+		for (int region = ConcurrentBitSet.region(first); region <= ConcurrentBitSet.region(last); region++) {
+			HANDLE.getAndAdd(sequences, (region << LOG_2_REGION_STRIDE) + offset, 1L);
+		}
+	}
+
+	/**
+	 * Calculates the region of words counted together within {@link #sequences}
+	 * which holds the word at the specified <b>wordIndex</b>. The shift is signed,
+	 * so negative indices lie outside of every region.
+	 * 
+	 * @param wordIndex the index of the word.
+	 * @return the index of the region.
+	 */
+	private static int region(final int wordIndex) {
+		return wordIndex >> LOG_2_REGION_WORDS;
+	}
+
+	/**
+	 * Returns the word at the specified <b>wordIndex</b>, read with the specified
+	 * memory <b>ordering</b> rather than with volatile semantics.
+	 * 
+	 * @param wordIndex the index within {@link #words} to read.
+	 * @param ordering  the memory {@link Ordering} used to read the word.
+	 * @return the word at the specified <b>wordIndex</b>.
+	 * @throws ArrayIndexOutOfBoundsException if <b>wordIndex</b> is outside of the
+	 *                                        range [0, {@link #wordCount}).
+	 * @throws NullPointerException           if <b>ordering</b> is null.
+	 */
+	public long getWord(final int wordIndex, final Ordering ordering) {
+		return ConcurrentBitSet.get(words, index(wordIndex), ordering);
+	}
+
+	/**
+	 * Changes the word at the specified <b>wordIndex</b> to the specified
+	 * <b>word</b>, written with the specified memory <b>ordering</b> rather than
+	 * with volatile semantics. When {@link #tracked} or {@link #consistent}, the
+	 * previous value or the surrounding counters must be ordered with the write,
+	 * so {@link #setWord(int, long)} is used regardless of <b>ordering</b>.
+	 * 
+	 * @param wordIndex the index within {@link #words} to change.
+	 * @param word      the new value of the word.
+	 * @param ordering  the memory {@link Ordering} used to write the word.
+	 * @throws ArrayIndexOutOfBoundsException if <b>wordIndex</b> is outside of the
+	 *                                        range [0, {@link #wordCount}).
+	 * @throws NullPointerException           if <b>ordering</b> is null.
+	 */
+	public void setWord(final int wordIndex, final long word, final Ordering ordering) {
+		Objects.requireNonNull(ordering);
+		if (tracked || consistent) {
+			setWord(wordIndex, word);
+			return;
+		}
+		switch (ordering) {
+		case PLAIN:
+			HANDLE.set(words, index(wordIndex), word);
+			break;
+		case OPAQUE:
+			HANDLE.setOpaque(words, index(wordIndex), word);
+			break;
+		default:
+			HANDLE.setRelease(words, index(wordIndex), word);
+		}
+	}
+
+	/**
+	 * Reads the element of <b>words</b> at the specified <b>wordIndex</b> with
+	 * the specified memory <b>ordering</b>.
+	 * 
+	 * @param words     the array to read from.
+	 * @param wordIndex the index of the element to read.
+	 * @param ordering  the memory {@link Ordering} used to read the element.
+	 * @return the element at <b>wordIndex</b>.
+	 */
+	private static long get(final long[] words, final int wordIndex, final Ordering ordering) {
+		switch (ordering) {
+		case PLAIN:
+			return (long) HANDLE.get(words, wordIndex);
+		case OPAQUE:
+			return (long) HANDLE.getOpaque(words, wordIndex);
+		default:
+			return (long) HANDLE.getAcquire(words, wordIndex);
+		}
+	}
+
+	/**
+	 * Creates a read-only view of this {@link ConcurrentBitSet} sharing its
+	 * {@link #words}, which reads each word with the specified memory
+	 * <b>ordering</b> rather than with volatile semantics. Bulk reads such as
+	 * {@link #population()}, {@link #equals(Object)} and iteration through a
+	 * weaker {@link Ordering} avoid the cost of a full fence on every word, while
+	 * still observing modifications made through this {@link ConcurrentBitSet}
+	 * as described by the {@link Ordering}. The view is read-only, as the
+	 * read-modify-write operations it inherits are not atomic; writes with a
+	 * weaker {@link Ordering} are made through
+	 * {@link #setWord(int, long, Ordering)} instead. Attempting to modify the view
+	 * will cause an {@link UnsupportedOperationException} to be thrown.
+	 * 
+	 * @param ordering the memory {@link Ordering} used to read each word.
+	 * @return a read-only {@link BitSet} view of this {@link ConcurrentBitSet}.
+	 * @throws NullPointerException if <b>ordering</b> is null.
+	 */
+	public BitSet view(final Ordering ordering) {
+		return new View(this, Objects.requireNonNull(ordering));
+	}
+
+	/**
+	 * Creates a {@link Writer} which combines modifications made through it
+	 * before applying them to this {@link ConcurrentBitSet}, performing a single
+	 * atomic operation per distinct word rather than per bit. Each {@link Writer}
+	 * must only be used by a single thread.
+	 * 
+	 * @return a new {@link Writer} of this {@link ConcurrentBitSet}.
+	 */
+	public Writer writer() {
+		return new Writer(this);
+	}
+
+	@Override
+	protected void track(final long previous, final long word) {
+		counter.add(Long.bitCount(word) - Long.bitCount(previous));
+	}
+
+	@Override
+	protected int trackedPopulation() {
+		return counter.intValue();
+	}
+
+	@Override
+	public int population() {
+		if (consistent) {
+			return read(set -> tracked ? super.population() : scanPopulation());
+		}
+		return tracked ? super.population() : scanPopulation();
+	}
+
+	/**
+	 * Calculates the number of <i>live</i> bits by reading each word with acquire
+	 * semantics rather than volatile semantics.
+	 * 
+	 * @return the number of <i>live</i> bits.
+	 */
+	private int scanPopulation() {
+		int population = 0;
+		for (int i = 0; i < wordCount; i++) {
+			population += Long.bitCount((long) HANDLE.getAcquire(words, index(i)));
+		}
+		return population;
+	}
+
+	@Override
+	public int hashCode() {
+		return consistent ? read(set -> super.hashCode()) : super.hashCode();
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (!consistent || obj == this) {
+			return super.equals(obj);
+		}
+		if (obj instanceof ConcurrentBitSet && ((ConcurrentBitSet) obj).consistent) {
+			final ConcurrentBitSet set = (ConcurrentBitSet) obj;
+			return read(self -> set.read(other -> super.equals(other)));
+		}
+		return read(set -> super.equals(obj));
+	}
+
+	/**
+	 * Write-combining buffer of modifications to a {@link ConcurrentBitSet},
+	 * confined to a single thread. The bits changed by {@link #set(int)} and
+	 * {@link #clear(int)} are accumulated within a small open-addressed table of
+	 * {@link #CAPACITY} words, holding a mask of bits to change to the
+	 * <i>live</i> state and a mask of bits to change to the <i>dead</i> state per
+	 * word. The masks are applied with a single atomic operation per distinct
+	 * word when the table becomes 3/4 full, or when {@link #flush()} or
+	 * {@link #close()} are called. Until then, the modifications aren't visible to
+	 * other threads, and when a bit is modified more than once, only the last
+	 * modification is applied.
+	 */
+	public static final class Writer implements AutoCloseable {
+
+		/**
+		 * The number of distinct words the table of a {@link Writer} can hold.
+		 */
+		public static final int CAPACITY = 64;
+
+		/**
+		 * log<sub>2</sub>{@link #CAPACITY}.
+		 */
+		private static final int LOG_2_CAPACITY = 6;
+
+		/**
+		 * The number of distinct words held after which the table is flushed.
+		 */
+		private static final int LIMIT = CAPACITY - (CAPACITY >>> 2);
+
+		/**
+		 * The {@link ConcurrentBitSet} modifications are applied to.
+		 */
+		private final ConcurrentBitSet set;
+
+		/**
+		 * The index of the word held in each slot of the table, or -1 if the slot
+		 * is empty.
+		 */
+		private final int[] indices = new int[CAPACITY];
+
+		/**
+		 * The bits to change to the <i>live</i> state within each held word.
+		 */
+		private final long[] lives = new long[CAPACITY];
+
+		/**
+		 * The bits to change to the <i>dead</i> state within each held word.
+		 */
+		private final long[] deads = new long[CAPACITY];
+
+		/**
+		 * The number of distinct words held in the table.
+		 */
+		private int count;
+
+		/**
+		 * Creates a {@link Writer} of the specified <b>set</b>.
+		 * 
+		 * @param set the {@link ConcurrentBitSet} to apply modifications to.
+		 */
+		private Writer(final ConcurrentBitSet set) {
+			this.set = set;
+			Arrays.fill(indices, -1);
+		}
+
+		/**
+		 * Changes the state of the bit at the specified <b>index</b> to the
+		 * <i>live</i> state once this {@link Writer} is flushed.
+		 * 
+		 * @param index the index of the bit to change to the <i>live</i> state.
+		 * @throws IndexOutOfBoundsException if <b>index</b> is negative, or greater
+		 *                                   than or equal to {@link #set}.size.
+		 */
+		public void set(final int index) {
+			final int slot = slot(index);
+			final long mask = BitSet.bitMask(index);
+			lives[slot] |= mask;
+			deads[slot] &= ~mask;
+		}
+
+		/**
+		 * Changes the state of the bit at the specified <b>index</b> to the
+		 * <i>dead</i> state once this {@link Writer} is flushed.
+		 * 
+		 * @param index the index of the bit to change to the <i>dead</i> state.
+		 * @throws IndexOutOfBoundsException if <b>index</b> is negative, or greater
+		 *                                   than or equal to {@link #set}.size.
+		 */
+		public void clear(final int index) {
+			final int slot = slot(index);
+			final long mask = BitSet.bitMask(index);
+			deads[slot] |= mask;
+			lives[slot] &= ~mask;
+		}
+
+		/**
+		 * Finds the slot of the table holding the word containing the specified
+		 * <b>index</b>, claiming an empty slot if it isn't held. The table is
+		 * flushed beforehand if it has reached {@link #LIMIT}.
+		 * 
+		 * @param index the index of the bit being modified.
+		 * @return the slot holding the word containing <b>index</b>.
+		 * @throws IndexOutOfBoundsException if <b>index</b> is negative, or greater
+		 *                                   than or equal to {@link #set}.size.
+		 */
+		private int slot(final int index) {
+			final int wordIndex = BitSet.divideSize(Objects.checkIndex(index, set.size));
+			int slot = Writer.home(wordIndex);
+			while (indices[slot] != wordIndex) {
+				if (indices[slot] < 0) {
+					if (count == LIMIT) {
+						flush();
+						slot = Writer.home(wordIndex);
+					}
+					indices[slot] = wordIndex;
+					count++;
+					return slot;
+				}
+				slot = (slot + 1) & (CAPACITY - 1);
+			}
+			return slot;
+		}
+
+		/**
+		 * Calculates the first slot of the table probed for the word at the
+		 * specified <b>wordIndex</b>, by Fibonacci hashing.
+		 * 
+		 * @param wordIndex the index of the word.
+		 * @return the preferred slot of the word.
+		 */
+		private static int home(final int wordIndex) {
+			return (wordIndex * 0x9E3779B9) >>> (Integer.SIZE - LOG_2_CAPACITY);
+		}
+
+		/**
+		 * Applies all modifications held by this {@link Writer} to {@link #set},
+		 * performing a single atomic operation per distinct word, and empties the
+		 * table.
+		 */
+		public void flush() {
+			for (int slot = 0; slot < CAPACITY && count > 0; slot++) {
+				final int wordIndex = indices[slot];
+				if (wordIndex < 0) {
+					continue;
+				}
+				final long live = lives[slot];
+				final long dead = deads[slot];
+				if (dead == BitSet.DEAD) {
+					set.orWord(wordIndex, live);
+				} else if (live == BitSet.DEAD) {
+					set.andWord(wordIndex, ~dead);
+				} else {
+					set.setWordSegment(wordIndex, live, live | dead);
+				}
+				indices[slot] = -1;
+				lives[slot] = BitSet.DEAD;
+				deads[slot] = BitSet.DEAD;
+				count--;
+			}
+		}
+
+		/**
+		 * Flushes this {@link Writer}. It may continue to be used afterwards.
+		 */
+		@Override
+		public void close() {
+			flush();
+		}
+
+	}
+
+	/**
+	 * Memory ordering with which words are read by
+	 * {@link ConcurrentBitSet#getWord(int, Ordering)} and views created by
+	 * {@link ConcurrentBitSet#view(Ordering)}, and written by
+	 * {@link ConcurrentBitSet#setWord(int, long, Ordering)}.
+	 */
+	public enum Ordering {
+
+		/**
+		 * Words are read and written without any ordering guarantees, as by
+		 * {@link VarHandle#get(Object...)} and {@link VarHandle#set(Object...)}.
+		 * Modifications made by other threads may never become visible, so this is
+		 * only suitable once threads have otherwise been synchronized with.
+		 */
+		PLAIN,
+
+		/**
+		 * Words are read and written as by {@link VarHandle#getOpaque(Object...)}
+		 * and {@link VarHandle#setOpaque(Object...)}, eventually observing
+		 * modifications made by other threads, without ordering relative to other
+		 * accesses.
+		 */
+		OPAQUE,
+
+		/**
+		 * Words are read as by {@link VarHandle#getAcquire(Object...)}, such that
+		 * subsequent accesses cannot be reordered before each word read, and
+		 * written as by {@link VarHandle#setRelease(Object...)}, such that prior
+		 * accesses cannot be reordered after each word written.
+		 */
+		ACQUIRE_RELEASE
+
+	}
+
+	/**
+	 * Read-only view of the words of a {@link ConcurrentBitSet}, reading each
+	 * word with a specified {@link Ordering}.
+	 */
+	private static final class View extends BitSet {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The {@link ConcurrentBitSet} whose words are shared, which determines where
+		 * each word is stored.
+		 */
+		private final ConcurrentBitSet set;
+
+		/**
+		 * The {@link Ordering} with which each word is read.
+		 */
+		private final Ordering ordering;
+
+		/**
+		 * Creates a {@link View} of the specified <b>set</b>.
+		 * 
+		 * @param set      the {@link ConcurrentBitSet} whose words are shared.
+		 * @param ordering the {@link Ordering} with which each word is read.
+		 */
+		View(final ConcurrentBitSet set, final Ordering ordering) {
+			super(set.size, set.words);
+			this.set = set;
+			this.ordering = ordering;
+		}
+
+		@Override
+		public long getWord(final int wordIndex) {
+			return ConcurrentBitSet.get(words, set.index(wordIndex), ordering);
+		}
+
+		@Override
+		public void setWord(final int wordIndex, final long word) {
+			throw new UnsupportedOperationException();
+		}
+
 	}
 
-}
\ No newline at end of file
+}
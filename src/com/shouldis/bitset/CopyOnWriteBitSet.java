@@ -0,0 +1,193 @@
+package com.shouldis.bitset;
+
+import java.nio.LongBuffer;
+
+/**
+ * Implementation of {@link BitSet} in which the words are divided into blocks
+ * of {@link #BLOCK_WORDS} words, allowing {@link #snapshot()} to produce an
+ * immutable view of the current state of all bits in constant time. Blocks are
+ * shared between a {@link CopyOnWriteBitSet} and its snapshots, and a block is
+ * only copied the first time it is written to after a snapshot was taken, so
+ * the cost of each snapshot is proportional to the number of blocks modified
+ * afterwards rather than to {@link #size}.
+ * <p>
+ * Blocks are allocated the first time they are written to, so words which have
+ * never been modified occupy no memory. Like {@link BitSet}, a
+ * {@link CopyOnWriteBitSet} is only thread-safe for read operations, but the
+ * snapshots it produces never change, and can be read by any number of threads
+ * while it continues to be modified.
+ * 
+ * @author Aaron Shouldis
+ * @see BitSet
+ */
+public final class CopyOnWriteBitSet extends BitSet {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The number of words within each block, occupying 4 KB.
+	 */
+	public static final int BLOCK_WORDS = 512;
+
+	/**
+	 * log<sub>2</sub>{@link #BLOCK_WORDS}.
+	 */
+	private static final int LOG_2_BLOCK_WORDS = 9;
+
+	/**
+	 * Mask used to calculate the index of a word within its block.
+	 */
+	private static final int BLOCK_MASK = BLOCK_WORDS - 1;
+
+	/**
+	 * Empty array supplied as {@link BitSet#words}, as it is left unused.
+	 */
+	private static final long[] EMPTY = new long[0];
+
+	/**
+	 * The blocks holding the words of this {@link CopyOnWriteBitSet}, with null
+	 * in place of blocks which have never been written to.
+	 */
+	private long[][] blocks;
+
+	/**
+	 * The value of {@link #generation} at the time each block was allocated or
+	 * copied. Blocks from earlier generations may be shared with a snapshot.
+	 */
+	private final int[] generations;
+
+	/**
+	 * The number of snapshots taken of this {@link CopyOnWriteBitSet}.
+	 */
+	private int generation;
+
+	/**
+	 * Whether {@link #blocks} itself is referenced by a snapshot, and must be
+	 * copied before any block within it is replaced.
+	 */
+	private boolean shared;
+
+	/**
+	 * Creates a {@link CopyOnWriteBitSet} with the specified <b>size</b>. All bits
+	 * are initially in the <i>dead</i> state.
+	 * 
+	 * @param size the number of indices that this {@link CopyOnWriteBitSet} will
+	 *             hold.
+	 * @throws IllegalArgumentException if <b>size</b> is less than 0.
+	 * @see BitSet#BitSet(int)
+	 */
+	public CopyOnWriteBitSet(final int size) {
+		super(size, EMPTY);
+		final int blockCount = (wordCount + BLOCK_MASK) >>> LOG_2_BLOCK_WORDS;
+		blocks = new long[blockCount][];
+		generations = new int[blockCount];
+	}
+
+	/**
+	 * Creates a {@link CopyOnWriteBitSet} which is a clone of the specified
+	 * <b>set</b>.
+	 * 
+	 * @param set the {@link BitSet} to copy.
+	 * @throws NullPointerException if <b>set</b> is null.
+	 * @see BitSet#BitSet(BitSet)
+	 */
+	public CopyOnWriteBitSet(final BitSet set) {
+		this(set.size);
+		copy(set);
+	}
+
+	@Override
+	public long getWord(final int wordIndex) {
+		final long[] block = blocks[wordIndex >>> LOG_2_BLOCK_WORDS];
+		return block == null ? BitSet.DEAD : block[wordIndex & BLOCK_MASK];
+	}
+
+	@Override
+	public void setWord(final int wordIndex, final long word) {
+		final int blockIndex = wordIndex >>> LOG_2_BLOCK_WORDS;
+		long[] block = blocks[blockIndex];
+		if (block == null || generations[blockIndex] != generation) {
+			if (shared) {
+				blocks = blocks.clone();
+				shared = false;
+			}
+			block = block == null ? new long[Math.min(BLOCK_WORDS, wordCount - (blockIndex << LOG_2_BLOCK_WORDS))]
+					: block.clone();
+			blocks[blockIndex] = block;
+			generations[blockIndex] = generation;
+		}
+		block[wordIndex & BLOCK_MASK] = word;
+	}
+
+	/**
+	 * Creates an immutable view of the current state of all bits within this
+	 * {@link CopyOnWriteBitSet} in constant time, without copying any words.
+	 * Subsequent modifications to this {@link CopyOnWriteBitSet} are not visible
+	 * through the snapshot, as each block is copied before it is first modified
+	 * afterwards. Attempting to modify the snapshot will cause an
+	 * {@link UnsupportedOperationException} to be thrown.
+	 * 
+	 * @return an immutable {@link BitSet} view of the current state of this
+	 *         {@link CopyOnWriteBitSet}.
+	 */
+	public BitSet snapshot() {
+		shared = true;
+		generation++;
+		return new Snapshot(size, blocks);
+	}
+
+	/**
+	 * Creates a read-only {@link LongBuffer} holding a copy of the words of this
+	 * {@link CopyOnWriteBitSet}, as its words are not stored contiguously.
+	 * 
+	 * @return a read-only copy of the words of this {@link CopyOnWriteBitSet}.
+	 */
+	@Override
+	public LongBuffer asLongBuffer() {
+		return LongBuffer.wrap(toLongArray()).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Immutable view of the blocks of a {@link CopyOnWriteBitSet} at the time
+	 * {@link CopyOnWriteBitSet#snapshot()} was called.
+	 */
+	private static final class Snapshot extends BitSet {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The blocks shared with the {@link CopyOnWriteBitSet}, which will never be
+		 * modified.
+		 */
+		private final long[][] blocks;
+
+		/**
+		 * Creates a {@link Snapshot} of the specified <b>blocks</b>.
+		 * 
+		 * @param size   the number of indices represented.
+		 * @param blocks the blocks to share.
+		 */
+		Snapshot(final int size, final long[][] blocks) {
+			super(size, EMPTY);
+			this.blocks = blocks;
+		}
+
+		@Override
+		public long getWord(final int wordIndex) {
+			final long[] block = blocks[wordIndex >>> LOG_2_BLOCK_WORDS];
+			return block == null ? BitSet.DEAD : block[wordIndex & BLOCK_MASK];
+		}
+
+		@Override
+		public void setWord(final int wordIndex, final long word) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public LongBuffer asLongBuffer() {
+			return LongBuffer.wrap(toLongArray()).asReadOnlyBuffer();
+		}
+
+	}
+
+}
@@ -0,0 +1,176 @@
+package com.shouldis.bitset;
+
+import java.io.Serializable;
+
+/**
+ * Implementation of {@link BitSet} which records the index of each word that is
+ * modified after a marker is placed by {@link #mark()}, allowing only the
+ * changed words to be extracted by {@link #deltaSince(long)} and shipped to a
+ * replica, rather than all of {@link #words}. Modified words are recorded
+ * within a secondary {@link BitSet} holding one bit per word, adding roughly
+ * 1.6% to the size of the {@link DeltaBitSet}.
+ * <p>
+ * Only the most recent marker is retained, as placing a new marker forgets the
+ * words modified before it. A word is only recorded if its value is actually
+ * changed, and records the value it holds when the {@link Delta} is extracted,
+ * so a word changed several times appears within a {@link Delta} once.
+ * 
+ * @author Aaron Shouldis
+ * @see BitSet
+ */
+public final class DeltaBitSet extends BitSet {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * {@link BitSet} holding a <i>live</i> bit at the index of each word modified
+	 * since the current {@link #marker}.
+	 */
+	private final BitSet dirty;
+
+	/**
+	 * The most recent marker returned by {@link #mark()}.
+	 */
+	private long marker;
+
+	/**
+	 * Creates a {@link DeltaBitSet} with the specified <b>size</b>. All bits are
+	 * initially in the <i>dead</i> state, and no words are recorded as modified.
+	 * 
+	 * @param size the number of indices that this {@link DeltaBitSet} will hold.
+	 * @throws IllegalArgumentException if <b>size</b> is less than 0.
+	 * @see BitSet#BitSet(int)
+	 */
+	public DeltaBitSet(final int size) {
+		super(size);
+		dirty = new BitSet(wordCount);
+	}
+
+	/**
+	 * Creates a {@link DeltaBitSet} which is a clone of the specified <b>set</b>.
+	 * No words are recorded as modified.
+	 * 
+	 * @param set the {@link BitSet} to copy.
+	 * @throws NullPointerException if <b>set</b> is null.
+	 * @see BitSet#BitSet(BitSet)
+	 */
+	public DeltaBitSet(final BitSet set) {
+		this(set.size);
+		copy(set);
+		dirty.empty();
+	}
+
+	@Override
+	public void setWord(final int wordIndex, final long word) {
+		if (words[wordIndex] != word) {
+			words[wordIndex] = word;
+			dirty.set(wordIndex);
+		}
+	}
+
+	/**
+	 * Places a new marker, forgetting which words were modified before it.
+	 * Subsequent modifications are recorded until the next call to this method.
+	 * 
+	 * @return the marker to supply to {@link #deltaSince(long)}.
+	 */
+	public long mark() {
+		dirty.empty();
+		return ++marker;
+	}
+
+	/**
+	 * Extracts the index and current value of each word modified since the
+	 * specified <b>marker</b> was placed, in ascending order of index. The marker
+	 * is not moved, so subsequent calls include these words again until
+	 * {@link #mark()} is called.
+	 * 
+	 * @param marker the marker most recently returned by {@link #mark()}, or 0 to
+	 *               extract the words modified since construction if it has never
+	 *               been called.
+	 * @return a {@link Delta} containing each modified word.
+	 * @throws IllegalArgumentException if <b>marker</b> is not the most recent
+	 *                                  marker.
+	 */
+	public Delta deltaSince(final long marker) {
+		if (marker != this.marker) {
+			throw new IllegalArgumentException(Long.toString(marker));
+		}
+		final int count = dirty.population();
+		final int[] indices = new int[count];
+		final long[] changes = new long[count];
+		for (int i = 0, wordIndex = dirty.nextLive(0); i < count; i++, wordIndex = dirty.nextLive(wordIndex + 1)) {
+			indices[i] = wordIndex;
+			changes[i] = words[wordIndex];
+		}
+		return new Delta(size, indices, changes);
+	}
+
+	/**
+	 * Compact list of words modified within a {@link DeltaBitSet}, extracted by
+	 * {@link DeltaBitSet#deltaSince(long)}, which can be applied to a replica of
+	 * the same size by {@link #applyTo(BitSet)}.
+	 */
+	public static final class Delta implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The size of the {@link DeltaBitSet} this {@link Delta} was extracted
+		 * from.
+		 */
+		public final int size;
+
+		/**
+		 * The ascending indices of the modified words.
+		 */
+		private final int[] indices;
+
+		/**
+		 * The values of the modified words, parallel to {@link #indices}.
+		 */
+		private final long[] words;
+
+		/**
+		 * Creates a {@link Delta} of the specified modified <b>words</b>.
+		 * 
+		 * @param size    the size of the {@link DeltaBitSet}.
+		 * @param indices the indices of the modified words.
+		 * @param words   the values of the modified words.
+		 */
+		Delta(final int size, final int[] indices, final long[] words) {
+			this.size = size;
+			this.indices = indices;
+			this.words = words;
+		}
+
+		/**
+		 * Returns the number of modified words within this {@link Delta}.
+		 * 
+		 * @return the number of words.
+		 */
+		public int count() {
+			return indices.length;
+		}
+
+		/**
+		 * Changes each word of the specified <b>set</b> recorded within this
+		 * {@link Delta} to its new value, bringing a replica up to date.
+		 * 
+		 * @param set the replica to modify.
+		 * @throws NullPointerException     if <b>set</b> is null.
+		 * @throws IllegalArgumentException if the size of <b>set</b> differs from
+		 *                                  {@link #size}.
+		 */
+		public void applyTo(final BitSet set) {
+			if (set.size != size) {
+				throw new IllegalArgumentException(Integer.toString(set.size));
+			}
+			for (int i = 0; i < indices.length; i++) {
+				set.setWord(indices[i], words[i]);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,146 @@
+package com.shouldis.bitset;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * Implementation of {@link BitSet} in which the words are stored outside of
+ * the Java heap within a direct {@link ByteBuffer}, rather than within
+ * {@link BitSet#words}. Because the garbage collector never has to trace or
+ * move the memory holding the bits, very large {@link DirectBitSet}s don't
+ * contribute to heap sizing or garbage collection pauses.
+ * <p>
+ * All methods capable of reading or writing the state of bits are delegated to
+ * {@link #getWord(int)} and {@link #setWord(int, long)}, so {@link DirectBitSet}
+ * can be used anywhere a {@link BitSet} is accepted. The memory backing a
+ * {@link DirectBitSet} is released once the {@link DirectBitSet} itself is no
+ * longer reachable.
+ * <p>
+ * When serialized, the state of each word is written to the stream, and a new
+ * direct buffer is allocated upon deserialization.
+ * 
+ * @author Aaron Shouldis
+ * @see BitSet
+ */
+public class DirectBitSet extends BitSet {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Empty array supplied as {@link BitSet#words}, as it is left unused.
+	 */
+	private static final long[] EMPTY = new long[0];
+
+	/**
+	 * Buffer holding the long words whose bits are manipulated, in place of
+	 * {@link BitSet#words}. Has capacity of at least {@link #wordCount}.
+	 */
+	protected transient LongBuffer buffer;
+
+	/**
+	 * Creates a {@link DirectBitSet} with the specified <b>size</b>, backed by a
+	 * newly allocated direct buffer using the platform's native byte order. All
+	 * bits are initially in the <i>dead</i> state.
+	 * 
+	 * @param size the number of indices that this {@link DirectBitSet} will hold.
+	 * @throws IllegalArgumentException if <b>size</b> is less than 0.
+	 * @see BitSet#BitSet(int)
+	 */
+	public DirectBitSet(final int size) {
+		this(size, DirectBitSet.allocate(BitSet.countWords(size)));
+	}
+
+	/**
+	 * Creates a {@link DirectBitSet} which is a clone of the specified <b>set</b>.
+	 * 
+	 * @param set the {@link BitSet} to copy.
+	 * @throws NullPointerException if <b>set</b> is null.
+	 * @see BitSet#BitSet(BitSet)
+	 */
+	public DirectBitSet(final BitSet set) {
+		this(set.size);
+		copy(set);
+	}
+
+	/**
+	 * Creates a {@link DirectBitSet} with the specified <b>size</b>, using the
+	 * specified {@link LongBuffer} <b>buffer</b> to store its words. The current
+	 * contents of <b>buffer</b> are used as the initial state of the bits.
+	 * 
+	 * @param size   the number of indices that this {@link DirectBitSet} will hold.
+	 * @param buffer the buffer whose first {@link #wordCount} longs will hold the
+	 *               words of this {@link DirectBitSet}.
+	 * @throws IllegalArgumentException if <b>size</b> is less than 0, or if the
+	 *                                  capacity of <b>buffer</b> is less than
+	 *                                  ceiling(<b>size</b> / 64).
+	 * @throws NullPointerException     if <b>buffer</b> is null.
+	 */
+	protected DirectBitSet(final int size, final LongBuffer buffer) {
+		super(size, EMPTY);
+		if (buffer.capacity() < wordCount) {
+			throw new IllegalArgumentException(Integer.toString(buffer.capacity()));
+		}
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Allocates a direct {@link LongBuffer} with the specified number of words,
+	 * using the platform's native byte order.
+	 * 
+	 * @param wordCount the number of words the buffer will hold.
+	 * @return the allocated {@link LongBuffer}.
+	 */
+	private static LongBuffer allocate(final int wordCount) {
+		return ByteBuffer.allocateDirect(wordCount * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+	}
+
+	@Override
+	public long getWord(final int wordIndex) {
+		return buffer.get(wordIndex);
+	}
+
+	@Override
+	public void setWord(final int wordIndex, final long word) {
+		buffer.put(wordIndex, word);
+	}
+
+	@Override
+	public LongBuffer asLongBuffer() {
+		return buffer.slice(0, wordCount).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Writes the state of each word to the specified <b>stream</b>.
+	 * 
+	 * @param stream the stream to be written to.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeObject(final ObjectOutputStream stream) throws IOException {
+		stream.defaultWriteObject();
+		for (int i = 0; i < wordCount; i++) {
+			stream.writeLong(getWord(i));
+		}
+	}
+
+	/**
+	 * Allocates {@link #buffer} and reads the state of each word from the
+	 * specified <b>stream</b>.
+	 * 
+	 * @param stream the stream to be read from.
+	 * @throws IOException            if an I/O error occurs.
+	 * @throws ClassNotFoundException if the class of a serialized object cannot be
+	 *                                found.
+	 */
+	private void readObject(final ObjectInputStream stream) throws IOException, ClassNotFoundException {
+		stream.defaultReadObject();
+		buffer = DirectBitSet.allocate(wordCount);
+		for (int i = 0; i < wordCount; i++) {
+			setWord(i, stream.readLong());
+		}
+	}
+
+}
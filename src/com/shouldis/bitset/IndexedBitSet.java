@@ -0,0 +1,249 @@
+package com.shouldis.bitset;
+
+import java.io.Serializable;
+
+/**
+ * Implementation of {@link BitSet} which maintains hierarchical summaries of
+ * its words, accelerating {@link #nextLive(int)}, {@link #nextDead(int)},
+ * {@link #lastLive(int)} and {@link #lastDead(int)} on sparse or nearly full
+ * sets. Each level of a summary holds one bit per word of the level below it,
+ * which is <i>live</i> if that word has any bits of interest, with the lowest
+ * level summarizing {@link #words}. Rather than walking every word between two
+ * <i>live</i> bits, queries ascend the levels until a <i>live</i> bit is found
+ * and descend again to the word it summarizes, taking O(log<sub>64</sub>
+ * {@link #wordCount}) word probes.
+ * <p>
+ * Summaries are maintained within {@link #setWord(int, long)}, which all other
+ * modifications are funneled through, at the cost of one or two extra word
+ * writes per modification. Hanging bits are excluded from the summaries.
+ * 
+ * @author Aaron Shouldis
+ * @see BitSet
+ */
+public final class IndexedBitSet extends BitSet {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * {@link Summary} of the words with any <i>live</i> bits.
+	 */
+	private final Summary live;
+
+	/**
+	 * {@link Summary} of the words with any <i>dead</i> bits.
+	 */
+	private final Summary dead;
+
+	/**
+	 * Creates an {@link IndexedBitSet} with the specified <b>size</b>.
+	 * 
+	 * @param size the number of indices that this {@link IndexedBitSet} will
+	 *             hold.
+	 * @throws IllegalArgumentException if <b>size</b> is less than 0.
+	 * @see BitSet#BitSet(int)
+	 */
+	public IndexedBitSet(final int size) {
+		super(size);
+		live = new Summary(wordCount);
+		dead = new Summary(wordCount);
+		for (int i = 0; i < wordCount; i++) {
+			dead.set(i);
+		}
+	}
+
+	/**
+	 * Creates an {@link IndexedBitSet} which is a clone of the specified
+	 * <b>set</b>.
+	 * 
+	 * @param set the {@link BitSet} to copy.
+	 * @throws NullPointerException if <b>set</b> is null.
+	 * @see BitSet#BitSet(BitSet)
+	 */
+	public IndexedBitSet(final BitSet set) {
+		this(set.size);
+		copy(set);
+	}
+
+	@Override
+	public void setWord(final int wordIndex, final long word) {
+		super.setWord(wordIndex, word);
+		final long mask = wordIndex == wordCount - 1 ? LIVE >>> -size : LIVE;
+		if ((word & mask) != DEAD) {
+			live.set(wordIndex);
+		} else {
+			live.clear(wordIndex);
+		}
+		if ((~word & mask) != DEAD) {
+			dead.set(wordIndex);
+		} else {
+			dead.clear(wordIndex);
+		}
+	}
+
+	@Override
+	public int nextLive(final int index) {
+		final int wordIndex = BitSet.divideSize(index);
+		if (wordIndex >= wordCount || (getWord(wordIndex) & (LIVE << index)) != DEAD) {
+			return super.nextLive(index);
+		}
+		final int next = live.next(wordIndex + 1);
+		return next < 0 ? -1 : super.nextLive(BitSet.multiplySize(next));
+	}
+
+	@Override
+	public int nextDead(final int index) {
+		final int wordIndex = BitSet.divideSize(index);
+		if (wordIndex >= wordCount || (~getWord(wordIndex) & (LIVE << index)) != DEAD) {
+			return super.nextDead(index);
+		}
+		final int next = dead.next(wordIndex + 1);
+		return next < 0 ? -1 : super.nextDead(BitSet.multiplySize(next));
+	}
+
+	@Override
+	public int lastLive(final int index) {
+		final int wordIndex = BitSet.divideSize(index);
+		if (wordIndex >= wordCount || (getWord(wordIndex) & (LIVE >>> -(index + 1))) != DEAD) {
+			return super.lastLive(index);
+		}
+		final int last = live.last(wordIndex - 1);
+		return last < 0 ? -1 : super.lastLive(BitSet.multiplySize(last + 1) - 1);
+	}
+
+	@Override
+	public int lastDead(final int index) {
+		final int wordIndex = BitSet.divideSize(index);
+		if (wordIndex >= wordCount || (~getWord(wordIndex) & (LIVE >>> -(index + 1))) != DEAD) {
+			return super.lastDead(index);
+		}
+		final int last = dead.last(wordIndex - 1);
+		return last < 0 ? -1 : super.lastDead(BitSet.multiplySize(last + 1) - 1);
+	}
+
+	/**
+	 * Hierarchy of bit levels, in which each bit of a level is <i>live</i> if the
+	 * corresponding word of the level below it has any <i>live</i> bits. The
+	 * lowest level holds one bit per summarized word, and the highest level
+	 * consists of a single word.
+	 */
+	private static final class Summary implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The words of each level, from lowest to highest.
+		 */
+		private final long[][] levels;
+
+		/**
+		 * Creates a {@link Summary} of <b>count</b> words, all initially absent.
+		 * 
+		 * @param count the number of words to summarize.
+		 */
+		Summary(final int count) {
+			int depth = 0;
+			int length = count;
+			do {
+				length = BitSet.countWords(length);
+				depth++;
+			} while (length > 1);
+			levels = new long[depth][];
+			length = count;
+			for (int i = 0; i < depth; i++) {
+				length = BitSet.countWords(length);
+				levels[i] = new long[length];
+			}
+		}
+
+		/**
+		 * Marks the word at the specified <b>index</b> as present, ascending only
+		 * as far as the first level which already had a <i>live</i> bit.
+		 * 
+		 * @param index the index of the summarized word.
+		 */
+		void set(int index) {
+			for (final long[] level : levels) {
+				final int wordIndex = BitSet.divideSize(index);
+				final long word = level[wordIndex];
+				level[wordIndex] = word | BitSet.bitMask(index);
+				if (word != DEAD) {
+					return;
+				}
+				index = wordIndex;
+			}
+		}
+
+		/**
+		 * Marks the word at the specified <b>index</b> as absent, ascending only as
+		 * far as the first level which still has a <i>live</i> bit.
+		 * 
+		 * @param index the index of the summarized word.
+		 */
+		void clear(int index) {
+			for (final long[] level : levels) {
+				final int wordIndex = BitSet.divideSize(index);
+				final long word = level[wordIndex] & ~BitSet.bitMask(index);
+				level[wordIndex] = word;
+				if (word != DEAD) {
+					return;
+				}
+				index = wordIndex;
+			}
+		}
+
+		/**
+		 * Calculates the index of the next present word after the specified
+		 * <b>index</b>, including that <b>index</b>.
+		 * 
+		 * @param index (inclusive) the first index to check.
+		 * @return the index of the next present word, or -1 if none were found.
+		 */
+		int next(int index) {
+			for (int depth = 0; depth < levels.length; depth++) {
+				final int wordIndex = BitSet.divideSize(index);
+				if (wordIndex >= levels[depth].length) {
+					return -1;
+				}
+				final long word = levels[depth][wordIndex] & (LIVE << index);
+				if (word != DEAD) {
+					index = BitSet.multiplySize(wordIndex) + Long.numberOfTrailingZeros(word);
+					while (depth-- > 0) {
+						index = BitSet.multiplySize(index) + Long.numberOfTrailingZeros(levels[depth][index]);
+					}
+					return index;
+				}
+				index = wordIndex + 1;
+			}
+			return -1;
+		}
+
+		/**
+		 * Calculates the index of the most recent present word before the
+		 * specified <b>index</b>, including that <b>index</b>.
+		 * 
+		 * @param index (inclusive) the first index to check.
+		 * @return the index of the most recent present word, or -1 if none were
+		 *         found.
+		 */
+		int last(int index) {
+			for (int depth = 0; depth < levels.length; depth++) {
+				if (index < 0) {
+					return -1;
+				}
+				final int wordIndex = BitSet.divideSize(index);
+				final long word = levels[depth][wordIndex] & (LIVE >>> -(index + 1));
+				if (word != DEAD) {
+					index = BitSet.multiplySize(wordIndex + 1) - Long.numberOfLeadingZeros(word) - 1;
+					while (depth-- > 0) {
+						index = BitSet.multiplySize(index + 1) - Long.numberOfLeadingZeros(levels[depth][index]) - 1;
+					}
+					return index;
+				}
+				index = wordIndex - 1;
+			}
+			return -1;
+		}
+
+	}
+
+}
@@ -7,7 +7,9 @@ package com.shouldis.bitset;
  * {@link BitSet} counterpart they override other than not delegating operations
  * to other methods such as {@link BitSet#bitMask(int)} and
  * {@link BitSet#setWord(int, long)}. {@link Long#bitCount(long)} intentionally
- * isn't inlined to retain existing VM optimizations.
+ * isn't inlined to retain existing VM optimizations. When {@link #tracked},
+ * modifications are instead delegated to their {@link BitSet} counterpart so
+ * that the population is maintained through {@link BitSet#setWord(int, long)}.
  * 
  * @author Aaron Shouldis
  * @see BitSet
@@ -27,6 +29,22 @@ public final class InlineBitSet extends BitSet {
 		super(size);
 	}
 
+	/**
+	 * Creates a {@link InlineBitSet} with the specified <b>size</b>, which will
+	 * keep its population current on every modification if <b>tracked</b> is
+	 * {@code true}.
+	 * 
+	 * @param size    the number of indices that this {@link InlineBitSet} will
+	 *                hold.
+	 * @param tracked whether the population should be maintained as words are
+	 *                modified.
+	 * @throws IllegalArgumentException if <b>size</b> is less than 0.
+	 * @see BitSet#BitSet(int, boolean)
+	 */
+	public InlineBitSet(final int size, final boolean tracked) {
+		super(size, tracked);
+	}
+
 	/**
 	 * Creates a {@link InlineBitSet} which is a clone of the specified <b>set</b>.
 	 * 
@@ -64,11 +82,19 @@ public final class InlineBitSet extends BitSet {
 
 	@Override
 	public void set(final int index) {
+		if (tracked) {
+			super.set(index);
+			return;
+		}
 		words[index >>> LOG_2_SIZE] |= (1L << index);
 	}
 
 	@Override
 	public void set(final int from, final int to) {
+		if (tracked) {
+			super.set(from, to);
+			return;
+		}
 		final int start = from >>> LOG_2_SIZE;
 		final int end = (to - 1) << LOG_2_SIZE;
 		final long startMask = LIVE << from;
@@ -86,11 +112,19 @@ public final class InlineBitSet extends BitSet {
 
 	@Override
 	public void clear(final int index) {
+		if (tracked) {
+			super.clear(index);
+			return;
+		}
 		words[index >>> LOG_2_SIZE] &= ~(1L << index);
 	}
 
 	@Override
 	public void clear(final int from, final int to) {
+		if (tracked) {
+			super.clear(from, to);
+			return;
+		}
 		final int start = from >>> LOG_2_SIZE;
 		final int end = (to - 1) << LOG_2_SIZE;
 		final long startMask = LIVE << from;
@@ -108,11 +142,19 @@ public final class InlineBitSet extends BitSet {
 
 	@Override
 	public void flip(final int index) {
+		if (tracked) {
+			super.flip(index);
+			return;
+		}
 		words[index >>> LOG_2_SIZE] ^= (1L << index);
 	}
 
 	@Override
 	public void flip(final int from, final int to) {
+		if (tracked) {
+			super.flip(from, to);
+			return;
+		}
 		final int start = from >>> LOG_2_SIZE;
 		final int end = (to - 1) << LOG_2_SIZE;
 		final long startMask = LIVE << from;
@@ -130,6 +172,9 @@ public final class InlineBitSet extends BitSet {
 
 	@Override
 	public boolean add(final int index) {
+		if (tracked) {
+			return super.add(index);
+		}
 		final int wordIndex = index >>> LOG_2_SIZE;
 		final long mask = 1L << index;
 		if ((words[wordIndex] & mask) != DEAD) {
@@ -141,6 +186,9 @@ public final class InlineBitSet extends BitSet {
 
 	@Override
 	public boolean remove(final int index) {
+		if (tracked) {
+			return super.remove(index);
+		}
 		final int wordIndex = index >>> LOG_2_SIZE;
 		final long mask = ~(1L << index);
 		if ((words[wordIndex] | mask) != LIVE) {
@@ -152,61 +200,119 @@ public final class InlineBitSet extends BitSet {
 
 	@Override
 	public void andWord(final int wordIndex, final long mask) {
+		if (tracked) {
+			super.andWord(wordIndex, mask);
+			return;
+		}
 		words[wordIndex] &= mask;
 	}
 
 	@Override
 	public void orWord(final int wordIndex, final long mask) {
+		if (tracked) {
+			super.orWord(wordIndex, mask);
+			return;
+		}
 		words[wordIndex] |= mask;
 	}
 
+	@Override
+	public long getAndOrWord(final int wordIndex, final long mask) {
+		if (tracked) {
+			return super.getAndOrWord(wordIndex, mask);
+		}
+		final long previous = words[wordIndex];
+		words[wordIndex] = previous | mask;
+		return previous;
+	}
+
 	@Override
 	public void xOrWord(final int wordIndex, final long mask) {
+		if (tracked) {
+			super.xOrWord(wordIndex, mask);
+			return;
+		}
 		words[wordIndex] ^= mask;
 	}
 
 	@Override
 	public void notAndWord(final int wordIndex, final long mask) {
+		if (tracked) {
+			super.notAndWord(wordIndex, mask);
+			return;
+		}
 		words[wordIndex] = ~(words[wordIndex] & mask);
 	}
 
 	@Override
 	public void notOrWord(final int wordIndex, final long mask) {
+		if (tracked) {
+			super.notOrWord(wordIndex, mask);
+			return;
+		}
 		words[wordIndex] = ~(words[wordIndex] | mask);
 	}
 
 	@Override
 	public void notXOrWord(final int wordIndex, final long mask) {
+		if (tracked) {
+			super.notXOrWord(wordIndex, mask);
+			return;
+		}
 		words[wordIndex] = ~(words[wordIndex] ^ mask);
 	}
 
 	@Override
 	public void setWordSegment(final int wordIndex, final long word, final long mask) {
+		if (tracked) {
+			super.setWordSegment(wordIndex, word, mask);
+			return;
+		}
 		words[wordIndex] = (mask & word) | (~mask & words[wordIndex]);
 	}
 
 	@Override
 	public void flipWord(final int wordIndex) {
+		if (tracked) {
+			super.flipWord(wordIndex);
+			return;
+		}
 		words[wordIndex] = ~words[wordIndex];
 	}
 
 	@Override
 	public void fillWord(final int wordIndex) {
+		if (tracked) {
+			super.fillWord(wordIndex);
+			return;
+		}
 		words[wordIndex] = LIVE;
 	}
 
 	@Override
 	public void emptyWord(final int wordIndex) {
+		if (tracked) {
+			super.emptyWord(wordIndex);
+			return;
+		}
 		words[wordIndex] = DEAD;
 	}
 
 	@Override
 	public void apply(final int wordIndex, final WordFunction function) {
+		if (tracked) {
+			super.apply(wordIndex, function);
+			return;
+		}
 		words[wordIndex] = function.apply(words[wordIndex]);
 	}
 
 	@Override
 	public void apply(final int wordIndex, final WordBiFunction function, final long mask) {
+		if (tracked) {
+			super.apply(wordIndex, function, mask);
+			return;
+		}
 		words[wordIndex] = function.apply(words[wordIndex], mask);
 	}
 
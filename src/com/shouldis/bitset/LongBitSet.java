@@ -0,0 +1,816 @@
+package com.shouldis.bitset;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.LongStream;
+
+import com.shouldis.bitset.parallel.LongLiveBiterator;
+
+/**
+ * Representation of a fixed number of bits indexed by long values, allowing
+ * more than {@link Integer#MAX_VALUE} bits to be held by a single set. The
+ * words are stored across several arrays, or segments, each holding
+ * {@link #SEGMENT_WORDS} words, rather than in a single array which would be
+ * limited in length.
+ * <p>
+ * {@link LongBitSet} mirrors the operations of {@link BitSet}, with the bits
+ * being in either the <i>live</i> state (<code>1, true</code>), or the
+ * <i>dead</i> state (<code>0, false</code>). {@link LongBitSet} on its own is
+ * thread-safe only for read operations, although a {@link LongLiveBiterator}
+ * may be used to stream indices in an order and grouping appropriate for
+ * parallel manipulation of bits.
+ * <p>
+ * As with {@link BitSet}, if {@link #size} isn't a multiple of 64, there will
+ * be hanging bits on the end of the last word, which can have their effect on
+ * aggregating functions made consistent by calling {@link #clearHanging()}.
+ * 
+ * @author Aaron Shouldis
+ * @see BitSet
+ */
+public final class LongBitSet implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * log<sub>2</sub> of {@link #SEGMENT_WORDS}. Used to relate word indices to
+	 * segment indices through bit-shifting.
+	 */
+	protected static final int LOG_2_SEGMENT_WORDS = 20;
+
+	/**
+	 * The number of words held by each segment within {@link #segments}, other
+	 * than the last, which may hold fewer.
+	 */
+	public static final int SEGMENT_WORDS = 1 << LOG_2_SEGMENT_WORDS;
+
+	/**
+	 * The number of bit indices covered by each segment within
+	 * {@link #segments}.
+	 */
+	public static final long SEGMENT_SIZE = LongBitSet.multiplySize(SEGMENT_WORDS);
+
+	/**
+	 * Mask used to compute the index of a word within its segment.
+	 */
+	private static final int SEGMENT_MASK = SEGMENT_WORDS - 1;
+
+	/**
+	 * The number of indices accessible by this {@link LongBitSet}. Indices
+	 * <b>0</b> through <b>size -1</b> are accessible.
+	 */
+	public final long size;
+
+	/**
+	 * The number of long words contained by this {@link LongBitSet}. Equal to
+	 * ceiling({@link #size} / 64).
+	 */
+	public final long wordCount;
+
+	/**
+	 * Arrays holding the long words whose bits are manipulated, each holding
+	 * {@link #SEGMENT_WORDS} words except for the last.
+	 */
+	private final long[][] segments;
+
+	/**
+	 * Creates a {@link LongBitSet} with the specified number of bit indices.
+	 * Indices 0 through <b>size</b> -1 will be accessible. All bits are initially
+	 * in the <i>dead</i> state.
+	 * 
+	 * @param size the number of bit indices that this {@link LongBitSet} will
+	 *             hold.
+	 * @throws IllegalArgumentException if <b>size</b> is less than 0, or requires
+	 *                                  more than {@link Integer#MAX_VALUE}
+	 *                                  segments.
+	 */
+	public LongBitSet(final long size) {
+		if (size < 0) {
+			throw new IllegalArgumentException(Long.toString(size));
+		}
+		long wordCount = LongBitSet.divideSize(size);
+		if (BitSet.modSize((int) size) > 0) {
+			wordCount++;
+		}
+		this.size = size;
+		this.wordCount = wordCount;
+		final long segmentCount = (wordCount + SEGMENT_MASK) >>> LOG_2_SEGMENT_WORDS;
+		if (segmentCount > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException(Long.toString(size));
+		}
+		segments = new long[(int) segmentCount][];
+		for (int i = 0; i < segments.length; i++) {
+			segments[i] = new long[(int) Math.min(SEGMENT_WORDS, wordCount - LongBitSet.wordIndex(i, 0))];
+		}
+	}
+
+	/**
+	 * Creates a {@link LongBitSet} which is a clone of the specified
+	 * {@link LongBitSet} <b>set</b>. The copy will have an identical {@link #size},
+	 * and will copy the contents of <b>set</b> through {@link #copy(LongBitSet)}.
+	 * 
+	 * @param set the {@link LongBitSet} to copy.
+	 * @throws NullPointerException if <b>set</b> is null.
+	 */
+	public LongBitSet(final LongBitSet set) {
+		this(set.size);
+		copy(set);
+	}
+
+	/**
+	 * Checks the current state of the bit at the specified <b>index</b>. Returns
+	 * {@code true} if the bit is in the <i>live</i> state, and {@code false} if it
+	 * is not.
+	 * 
+	 * @param index the index of the bit to examine.
+	 * @return whether the bit at the specified <b>index</b> is in the <i>live</i>
+	 *         state.
+	 * @throws IndexOutOfBoundsException if <b>index</b> is negative or greater than
+	 *                                   or equal to {@link #size}.
+	 */
+	public boolean get(final long index) {
+		return (getWord(LongBitSet.divideSize(index)) & LongBitSet.bitMask(index)) != BitSet.DEAD;
+	}
+
+	/**
+	 * Calculates the number of <i>live</i> bits in the specified range
+	 * [<b>from</b>, <b>to</b>).
+	 * 
+	 * @param from (inclusive) the index of the first bit to be checked.
+	 * @param to   (exclusive) the end of the range of bits to be checked.
+	 * @return the number of <i>live</i> bits inside the specified range, or 0 if
+	 *         <b>from</b> is equal to <b>to</b>.
+	 * @throws IndexOutOfBoundsException if <b>from</b> or <b>to</b> are outside of
+	 *                                   the range [0, {@link #size}).
+	 */
+	public long get(final long from, final long to) {
+		Objects.checkFromToIndex(from, to, size);
+		if (from == to) {
+			return 0L;
+		}
+		final long start = LongBitSet.divideSize(from);
+		final long end = LongBitSet.divideSize(to - 1);
+		final long startMask = BitSet.LIVE << from;
+		final long endMask = BitSet.LIVE >>> -to;
+		long sum;
+		if (start == end) {
+			sum = Long.bitCount(getWord(start) & startMask & endMask);
+		} else {
+			sum = Long.bitCount(getWord(start) & startMask);
+			for (long i = start + 1; i < end; i++) {
+				sum += Long.bitCount(getWord(i));
+			}
+			sum += Long.bitCount(getWord(end) & endMask);
+		}
+		return sum;
+	}
+
+	/**
+	 * Changes the state of a bit at the specified <b>index</b> to the <i>live</i>
+	 * state.
+	 * 
+	 * @param index the index of the bit to change to the <i>live</i> state.
+	 * @throws IndexOutOfBoundsException if <b>index</b> is negative, or greater
+	 *                                   than or equal to {@link #size}.
+	 */
+	public void set(final long index) {
+		orWord(LongBitSet.divideSize(index), LongBitSet.bitMask(index));
+	}
+
+	/**
+	 * Changes the state of all bits in the specified range [<b>from</b>, <b>to</b>)
+	 * to the <i>live</i> state. No action is taken if <b>from</b> is equal to
+	 * <b>to</b>.
+	 * 
+	 * @param from (inclusive) the index of the first bit to be changed to the
+	 *             <i>live</i> state.
+	 * @param to   (exclusive) the end of the range of bits to be changed to the
+	 *             <i>live</i> state.
+	 * @throws IndexOutOfBoundsException if <b>from</b> or <b>to</b> are outside of
+	 *                                   the range [0, {@link #size}).
+	 */
+	public void set(final long from, final long to) {
+		Objects.checkFromToIndex(from, to, size);
+		if (from == to) {
+			return;
+		}
+		final long start = LongBitSet.divideSize(from);
+		final long end = LongBitSet.divideSize(to - 1);
+		final long startMask = BitSet.LIVE << from;
+		final long endMask = BitSet.LIVE >>> -to;
+		if (start == end) {
+			orWord(start, startMask & endMask);
+		} else {
+			orWord(start, startMask);
+			for (long i = start + 1; i < end; i++) {
+				setWord(i, BitSet.LIVE);
+			}
+			orWord(end, endMask);
+		}
+	}
+
+	/**
+	 * Changes the state of a bit at the specified <b>index</b> to the <i>dead</i>
+	 * state.
+	 * 
+	 * @param index the index of the bit to clear.
+	 * @throws IndexOutOfBoundsException if <b>index</b> is negative or greater than
+	 *                                   or equal to {@link #size}.
+	 */
+	public void clear(final long index) {
+		andWord(LongBitSet.divideSize(index), ~LongBitSet.bitMask(index));
+	}
+
+	/**
+	 * Changes the state of all bits in the specified range [<b>from</b>, <b>to</b>)
+	 * to the <i>dead</i> state. No action is taken if <b>from</b> is equal to
+	 * <b>to</b>.
+	 * 
+	 * @param from (inclusive) the index of the first bit to be cleared.
+	 * @param to   (exclusive) the end of the range of bits to be cleared.
+	 * @throws IndexOutOfBoundsException if <b>from</b> or <b>to</b> are outside of
+	 *                                   the range [0, {@link #size}).
+	 */
+	public void clear(final long from, final long to) {
+		Objects.checkFromToIndex(from, to, size);
+		if (from == to) {
+			return;
+		}
+		final long start = LongBitSet.divideSize(from);
+		final long end = LongBitSet.divideSize(to - 1);
+		final long startMask = BitSet.LIVE << from;
+		final long endMask = BitSet.LIVE >>> -to;
+		if (start == end) {
+			andWord(start, ~(startMask & endMask));
+		} else {
+			andWord(start, ~startMask);
+			for (long i = start + 1; i < end; i++) {
+				setWord(i, BitSet.DEAD);
+			}
+			andWord(end, ~endMask);
+		}
+	}
+
+	/**
+	 * Changes the state of the bit at the specified <b>index</b> to its opposite
+	 * through an {@code XOR} operation.
+	 * 
+	 * @param index the index of the bit to flip.
+	 * @throws IndexOutOfBoundsException if <b>index</b> is negative or greater than
+	 *                                   or equal to {@link #size}.
+	 */
+	public void flip(final long index) {
+		xOrWord(LongBitSet.divideSize(index), LongBitSet.bitMask(index));
+	}
+
+	/**
+	 * Changes the state of all bits in the specified range [<b>from</b>, <b>to</b>)
+	 * to their opposites through an {@code XOR} operation. No action is taken if
+	 * <b>from</b> is equal to <b>to</b>.
+	 * 
+	 * @param from (inclusive) the index of the first bit to flip.
+	 * @param to   (exclusive) the end of the range of bits to flip.
+	 * @throws IndexOutOfBoundsException if <b>from</b> or <b>to</b> are outside of
+	 *                                   the range [0, {@link #size}).
+	 */
+	public void flip(final long from, final long to) {
+		Objects.checkFromToIndex(from, to, size);
+		if (from == to) {
+			return;
+		}
+		final long start = LongBitSet.divideSize(from);
+		final long end = LongBitSet.divideSize(to - 1);
+		final long startMask = BitSet.LIVE << from;
+		final long endMask = BitSet.LIVE >>> -to;
+		if (start == end) {
+			xOrWord(start, startMask & endMask);
+		} else {
+			xOrWord(start, startMask);
+			for (long i = start + 1; i < end; i++) {
+				xOrWord(i, BitSet.LIVE);
+			}
+			xOrWord(end, endMask);
+		}
+	}
+
+	/**
+	 * Ensures that the bit at the specified <b>index</b> is in the <i>live</i>
+	 * state. If it is not, it will be changed.
+	 * 
+	 * @param index the index of the bit to change to the <i>live</i> state.
+	 * @return whether or not this {@link LongBitSet} was changed as a result.
+	 * @throws IndexOutOfBoundsException if <b>index</b> is negative, or greater
+	 *                                   than or equal to {@link #size}.
+	 */
+	public boolean add(final long index) {
+		final long wordIndex = LongBitSet.divideSize(index);
+		final long mask = LongBitSet.bitMask(index);
+		if ((getWord(wordIndex) & mask) != BitSet.DEAD) {
+			return false;
+		}
+		orWord(wordIndex, mask);
+		return true;
+	}
+
+	/**
+	 * Ensures that the bit at the specified <b>index</b> is the <i>dead</i> state.
+	 * If it is not, it will be changed.
+	 * 
+	 * @param index the index of the bit to change to the <i>dead</i> state.
+	 * @return whether or not this {@link LongBitSet} was changed as a result.
+	 * @throws IndexOutOfBoundsException if <b>index</b> is negative, or greater
+	 *                                   than or equal to {@link #size}.
+	 */
+	public boolean remove(final long index) {
+		final long wordIndex = LongBitSet.divideSize(index);
+		final long mask = ~LongBitSet.bitMask(index);
+		if ((getWord(wordIndex) | mask) != BitSet.LIVE) {
+			return false;
+		}
+		andWord(wordIndex, mask);
+		return true;
+	}
+
+	/**
+	 * Returns the long word at the specified <b>wordIndex</b>.
+	 * 
+	 * @param wordIndex the index of the word to read.
+	 * @return the raw contents of the word at the specified <b>wordIndex</b>.
+	 * @throws IndexOutOfBoundsException if <b>wordIndex</b> is outside of the range
+	 *                                   [0, {@link #wordCount}).
+	 */
+	public long getWord(final long wordIndex) {
+		Objects.checkIndex(wordIndex, wordCount);
+		return segments[LongBitSet.segmentIndex(wordIndex)][LongBitSet.segmentOffset(wordIndex)];
+	}
+
+	/**
+	 * Changes the long word at the specified <b>wordIndex</b>, setting it to
+	 * <b>word</b>.
+	 * 
+	 * @param wordIndex the index of the word to set.
+	 * @param word      the long value to be set at <b>wordIndex</b>.
+	 * @throws IndexOutOfBoundsException if <b>wordIndex</b> is outside of the range
+	 *                                   [0, {@link #wordCount}).
+	 */
+	public void setWord(final long wordIndex, final long word) {
+		Objects.checkIndex(wordIndex, wordCount);
+		segments[LongBitSet.segmentIndex(wordIndex)][LongBitSet.segmentOffset(wordIndex)] = word;
+	}
+
+	/**
+	 * Changes the long word at <b>wordIndex</b> to the result of an {@code AND}
+	 * operation between its current value and the specified <b>mask</b>.
+	 * 
+	 * @param wordIndex the index of the word to perform the {@code AND} operation
+	 *                  upon.
+	 * @param mask      the mask to use in the {@code AND} operation.
+	 * @throws IndexOutOfBoundsException if <b>wordIndex</b> is outside of the range
+	 *                                   [0, {@link #wordCount}).
+	 */
+	public void andWord(final long wordIndex, final long mask) {
+		setWord(wordIndex, getWord(wordIndex) & mask);
+	}
+
+	/**
+	 * Changes the long word at <b>wordIndex</b> to the result of an {@code OR}
+	 * operation between its current value and the specified <b>mask</b>.
+	 * 
+	 * @param wordIndex the index of the word to perform the {@code OR} operation
+	 *                  upon.
+	 * @param mask      the mask to use in the {@code OR} operation.
+	 * @throws IndexOutOfBoundsException if <b>wordIndex</b> is outside of the range
+	 *                                   [0, {@link #wordCount}).
+	 */
+	public void orWord(final long wordIndex, final long mask) {
+		setWord(wordIndex, getWord(wordIndex) | mask);
+	}
+
+	/**
+	 * Changes the long word at <b>wordIndex</b> to the result of an {@code XOR}
+	 * operation between its current value and the specified <b>mask</b>.
+	 * 
+	 * @param wordIndex the index of the word to perform the {@code XOR} operation
+	 *                  upon.
+	 * @param mask      the mask to use in the {@code XOR} operation.
+	 * @throws IndexOutOfBoundsException if <b>wordIndex</b> is outside of the range
+	 *                                   [0, {@link #wordCount}).
+	 */
+	public void xOrWord(final long wordIndex, final long mask) {
+		setWord(wordIndex, getWord(wordIndex) ^ mask);
+	}
+
+	/**
+	 * Calculates the index of the next <i>live</i> bit after the specified
+	 * <b>index</b>, including that <b>index</b>. All bits from that specified
+	 * <b>index</b>, until {@link #size} will be checked. If no <i>live</i> bits are
+	 * found, -1 is returned.
+	 * 
+	 * @param index (inclusive) the first index to check.
+	 * @return the index of the next <i>live</i> bit, or -1 if none were found.
+	 */
+	public final long nextLive(final long index) {
+		if (index < 0 || index >= size) {
+			return -1L;
+		}
+		long wordIndex = LongBitSet.divideSize(index);
+		int segment = LongBitSet.segmentIndex(wordIndex);
+		int offset = LongBitSet.segmentOffset(wordIndex);
+		long word = segments[segment][offset] & (BitSet.LIVE << index);
+		while (word == BitSet.DEAD) {
+			if (++offset == segments[segment].length) {
+				if (++segment == segments.length) {
+					return -1L;
+				}
+				offset = 0;
+			}
+			word = segments[segment][offset];
+		}
+		return nextLiveBit(word, segment, offset);
+	}
+
+	/**
+	 * Calculates the index of the next <i>dead</i> bit after the specified
+	 * <b>index</b>, including that <b>index</b>. All bits from that specified
+	 * <b>index</b>, until {@link #size} will be checked. If none are found, -1 is
+	 * returned.
+	 * 
+	 * @param index (inclusive) the first index to check.
+	 * @return the index of the next <i>dead</i> bit, or -1 if none were found.
+	 */
+	public final long nextDead(final long index) {
+		if (index < 0 || index >= size) {
+			return -1L;
+		}
+		long wordIndex = LongBitSet.divideSize(index);
+		int segment = LongBitSet.segmentIndex(wordIndex);
+		int offset = LongBitSet.segmentOffset(wordIndex);
+		long word = ~segments[segment][offset] & (BitSet.LIVE << index);
+		while (word == BitSet.DEAD) {
+			if (++offset == segments[segment].length) {
+				if (++segment == segments.length) {
+					return -1L;
+				}
+				offset = 0;
+			}
+			word = ~segments[segment][offset];
+		}
+		return nextLiveBit(word, segment, offset);
+	}
+
+	/**
+	 * Calculates the index of the most recent <i>live</i> bit before the specified
+	 * <b>index</b>, including that <b>index</b>. If none are found, -1 is returned.
+	 * 
+	 * @param index (inclusive) the first index to check.
+	 * @return the index of the previous <i>live</i> bit, or -1 if none were found.
+	 */
+	public final long lastLive(final long index) {
+		if (index < 0 || index >= size) {
+			return -1L;
+		}
+		long wordIndex = LongBitSet.divideSize(index);
+		int segment = LongBitSet.segmentIndex(wordIndex);
+		int offset = LongBitSet.segmentOffset(wordIndex);
+		long word = segments[segment][offset] & (BitSet.LIVE >>> -(index + 1));
+		while (word == BitSet.DEAD) {
+			if (offset-- == 0) {
+				if (segment-- == 0) {
+					return -1L;
+				}
+				offset = segments[segment].length - 1;
+			}
+			word = segments[segment][offset];
+		}
+		return lastLiveBit(word, segment, offset);
+	}
+
+	/**
+	 * Calculates the index of the most recent <i>dead</i> bit before the specified
+	 * <b>index</b>, including that <b>index</b>. If none are found, -1 is returned.
+	 * 
+	 * @param index (inclusive) the first index to check.
+	 * @return the index of the previous <i>dead</i> bit, or -1 if none were found.
+	 */
+	public final long lastDead(final long index) {
+		if (index < 0 || index >= size) {
+			return -1L;
+		}
+		long wordIndex = LongBitSet.divideSize(index);
+		int segment = LongBitSet.segmentIndex(wordIndex);
+		int offset = LongBitSet.segmentOffset(wordIndex);
+		long word = ~segments[segment][offset] & (BitSet.LIVE >>> -(index + 1));
+		while (word == BitSet.DEAD) {
+			if (offset-- == 0) {
+				if (segment-- == 0) {
+					return -1L;
+				}
+				offset = segments[segment].length - 1;
+			}
+			word = ~segments[segment][offset];
+		}
+		return lastLiveBit(word, segment, offset);
+	}
+
+	/**
+	 * Calculates the index of the next <i>live</i> bit within a specified
+	 * <b>word</b> that is at the specified <b>offset</b> within the specified
+	 * <b>segment</b>.
+	 * 
+	 * @param word    the long word to be checked for a <i>live</i> bit.
+	 * @param segment the index of the segment containing the word.
+	 * @param offset  the index of the word within its segment.
+	 * @return the index of the next <i>live</i> bit within the specified word, or
+	 *         -1 if it is outside of {@link #size}.
+	 */
+	private long nextLiveBit(final long word, final int segment, final int offset) {
+		final long index = LongBitSet.multiplySize(LongBitSet.wordIndex(segment, offset))
+				+ Long.numberOfTrailingZeros(word);
+		return index < size ? index : -1L;
+	}
+
+	/**
+	 * Calculates the index of the recent-most <i>live</i> bit within a specified
+	 * <b>word</b> that is at the specified <b>offset</b> within the specified
+	 * <b>segment</b>.
+	 * 
+	 * @param word    the long word to be checked for a <i>live</i> bit.
+	 * @param segment the index of the segment containing the word.
+	 * @param offset  the index of the word within its segment.
+	 * @return the index of the recent-most <i>live</i> bit within the specified
+	 *         word, or -1 if it is outside of {@link #size}.
+	 */
+	private long lastLiveBit(final long word, final int segment, final int offset) {
+		final long index = LongBitSet.multiplySize(LongBitSet.wordIndex(segment, offset) + 1)
+				- Long.numberOfLeadingZeros(word) - 1;
+		return index < size ? index : -1L;
+	}
+
+	/**
+	 * Creates a parallel-safe {@link LongStream} consisting of the indices of all
+	 * <i>live</i> bits within this {@link LongBitSet} using
+	 * {@link LongLiveBiterator}.
+	 * 
+	 * @return a parallel-safe {@link LongStream} representation of the bit indices
+	 *         in the <i>live</i> state.
+	 */
+	public final LongStream live() {
+		return new LongLiveBiterator(this).stream();
+	}
+
+	/**
+	 * Transforms each bit in this {@link LongBitSet} to the <i>live</i> state.
+	 */
+	public final void fill() {
+		for (final long[] segment : segments) {
+			Arrays.fill(segment, BitSet.LIVE);
+		}
+	}
+
+	/**
+	 * Transforms each bit in this {@link LongBitSet} to the <i>dead</i> state.
+	 */
+	public final void empty() {
+		for (final long[] segment : segments) {
+			Arrays.fill(segment, BitSet.DEAD);
+		}
+	}
+
+	/**
+	 * Transforms each bit in this {@link LongBitSet} into the complement of its
+	 * current state.
+	 */
+	public final void flip() {
+		for (final long[] segment : segments) {
+			for (int i = 0; i < segment.length; i++) {
+				segment[i] = ~segment[i];
+			}
+		}
+	}
+
+	/**
+	 * Performs a global {@code AND} operation on all bits in this
+	 * {@link LongBitSet} with those in the specified {@link LongBitSet}
+	 * <b>set</b>.
+	 * 
+	 * @param set the other {@link LongBitSet} from which to perform the
+	 *            {@code AND} operation.
+	 * @throws IllegalArgumentException if the {@link #size}s of both
+	 *                                  {@link LongBitSet}s are not equal.
+	 * @throws NullPointerException     if <b>set</b> is null.
+	 */
+	public final void and(final LongBitSet set) {
+		checkSize(set);
+		for (int i = 0; i < segments.length; i++) {
+			final long[] segment = segments[i];
+			final long[] other = set.segments[i];
+			for (int j = 0; j < segment.length; j++) {
+				segment[j] &= other[j];
+			}
+		}
+	}
+
+	/**
+	 * Performs a global {@code OR} operation on all bits in this {@link LongBitSet}
+	 * with those in the specified {@link LongBitSet} <b>set</b>.
+	 * 
+	 * @param set the other {@link LongBitSet} from which to perform the {@code OR}
+	 *            operation.
+	 * @throws IllegalArgumentException if the {@link #size}s of both
+	 *                                  {@link LongBitSet}s are not equal.
+	 * @throws NullPointerException     if <b>set</b> is null.
+	 */
+	public final void or(final LongBitSet set) {
+		checkSize(set);
+		for (int i = 0; i < segments.length; i++) {
+			final long[] segment = segments[i];
+			final long[] other = set.segments[i];
+			for (int j = 0; j < segment.length; j++) {
+				segment[j] |= other[j];
+			}
+		}
+	}
+
+	/**
+	 * Performs a global {@code XOR} operation on all bits in this
+	 * {@link LongBitSet} with those in the specified {@link LongBitSet}
+	 * <b>set</b>.
+	 * 
+	 * @param set the other {@link LongBitSet} from which to perform the
+	 *            {@code XOR} operation.
+	 * @throws IllegalArgumentException if the {@link #size}s of both
+	 *                                  {@link LongBitSet}s are not equal.
+	 * @throws NullPointerException     if <b>set</b> is null.
+	 */
+	public final void xOr(final LongBitSet set) {
+		checkSize(set);
+		for (int i = 0; i < segments.length; i++) {
+			final long[] segment = segments[i];
+			final long[] other = set.segments[i];
+			for (int j = 0; j < segment.length; j++) {
+				segment[j] ^= other[j];
+			}
+		}
+	}
+
+	/**
+	 * Transforms this {@link LongBitSet} so that each bit matches the state of that
+	 * in the given <b>set</b>.
+	 * 
+	 * @param set the other {@link LongBitSet} from which to copy.
+	 * @throws IllegalArgumentException if the {@link #size}s of both
+	 *                                  {@link LongBitSet}s are not equal.
+	 * @throws NullPointerException     if <b>set</b> is null.
+	 */
+	public final void copy(final LongBitSet set) {
+		checkSize(set);
+		for (int i = 0; i < segments.length; i++) {
+			System.arraycopy(set.segments[i], 0, segments[i], 0, segments[i].length);
+		}
+	}
+
+	/**
+	 * Ensures that the specified {@link LongBitSet} <b>set</b> has the same
+	 * {@link #size} as this {@link LongBitSet}.
+	 * 
+	 * @param set the {@link LongBitSet} to check.
+	 * @throws IllegalArgumentException if the {@link #size}s of both
+	 *                                  {@link LongBitSet}s are not equal.
+	 */
+	private void checkSize(final LongBitSet set) {
+		if (set.size != size) {
+			throw new IllegalArgumentException(Long.toString(set.size));
+		}
+	}
+
+	/**
+	 * Changes the state of any hanging bits to the <i>dead</i> state in order to
+	 * maintain their effect on aggregating functions ({@link #population()},
+	 * {@link #density()}, etc).
+	 */
+	public final void clearHanging() {
+		final int hanging = BitSet.modSize((int) -size);
+		if (hanging > 0) {
+			andWord(wordCount - 1, BitSet.LIVE >>> hanging);
+		}
+	}
+
+	/**
+	 * Calculates the number of <i>live</i> bits within this {@link LongBitSet}.
+	 * {@link #clearHanging()} can be used to stop the interference of hanging bits.
+	 * 
+	 * @return the number of <i>live</i> bits.
+	 */
+	public final long population() {
+		long population = 0L;
+		for (final long[] segment : segments) {
+			for (int i = 0; i < segment.length; i++) {
+				population += Long.bitCount(segment[i]);
+			}
+		}
+		return population;
+	}
+
+	/**
+	 * Calculates what percentage of bits in this {@link LongBitSet} are in the
+	 * <i>live</i> state. {@link #clearHanging()} can be used to stop the
+	 * interference of hanging bits.
+	 * 
+	 * @return the percentage of <i>live</i> bits.
+	 */
+	public final double density() {
+		return population() / (double) size;
+	}
+
+	/**
+	 * Calculates <b>n</b> / 64. Typically used to translate the index of a bit to
+	 * the index of the word that bit belongs to.
+	 * 
+	 * @param n the number to divide by 64.
+	 * @return <b>n</b> / 64.
+	 */
+	public static final long divideSize(final long n) {
+		return n >>> BitSet.LOG_2_SIZE;
+	}
+
+	/**
+	 * Calculates <b>n</b> * 64. Typically used to translate the index of a word to
+	 * the index of that word's first bit.
+	 * 
+	 * @param n the number to multiply by 64.
+	 * @return <b>n</b> * 64.
+	 */
+	public static final long multiplySize(final long n) {
+		return n << BitSet.LOG_2_SIZE;
+	}
+
+	/**
+	 * Calculates a mask to represent the bit at which a specific index will be
+	 * stored within a long word.
+	 * 
+	 * @param index the index to represent as a bit.
+	 * @return the bit that represents the position of an index within a word.
+	 */
+	public static final long bitMask(final long index) {
+		return 1L << index;
+	}
+
+	/**
+	 * Calculates the index of the segment within {@link #segments} holding the
+	 * word at the specified <b>wordIndex</b>.
+	 * 
+	 * @param wordIndex the index of the word.
+	 * @return the index of the segment holding that word.
+	 */
+	public static final int segmentIndex(final long wordIndex) {
+		return (int) (wordIndex >>> LOG_2_SEGMENT_WORDS);
+	}
+
+	/**
+	 * Calculates the index of the word at the specified <b>wordIndex</b> within
+	 * the segment holding it.
+	 * 
+	 * @param wordIndex the index of the word.
+	 * @return the index of that word within its segment.
+	 */
+	public static final int segmentOffset(final long wordIndex) {
+		return (int) wordIndex & SEGMENT_MASK;
+	}
+
+	/**
+	 * Calculates the index of the word at the specified <b>offset</b> within the
+	 * specified <b>segment</b>.
+	 * 
+	 * @param segment the index of the segment holding the word.
+	 * @param offset  the index of the word within its segment.
+	 * @return the index of that word.
+	 */
+	public static final long wordIndex(final int segment, final int offset) {
+		return ((long) segment << LOG_2_SEGMENT_WORDS) + offset;
+	}
+
+	@Override
+	public int hashCode() {
+		long hash = size;
+		for (final long[] segment : segments) {
+			for (int i = 0; i < segment.length; i++) {
+				hash *= 31L;
+				hash += segment[i];
+			}
+		}
+		return (int) (hash ^ (hash >>> Integer.SIZE));
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (obj == null) {
+			return false;
+		}
+		if (obj == this) {
+			return true;
+		}
+		return obj instanceof LongBitSet && size == ((LongBitSet) obj).size
+				&& Arrays.deepEquals(segments, ((LongBitSet) obj).segments);
+	}
+
+}
@@ -0,0 +1,150 @@
+package com.shouldis.bitset;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Implementation of {@link DirectBitSet} in which the words are stored within a
+ * file mapped into memory through {@link FileChannel#map}. Changes to the state
+ * of bits are written through to the file by the operating system, and an
+ * existing file is opened without reading its contents, with words paged in on
+ * demand as they are accessed. This allows {@link MappedBitSet}s to persist
+ * between runs, and to exceed the size of the Java heap.
+ * <p>
+ * The file begins with a header of {@link #HEADER_SIZE} bytes, holding
+ * {@link #MAGIC_NUMBER} and {@link #size}, followed by each word in
+ * little-endian byte order. {@link #force()} can be used to ensure all changes
+ * have been written to the storage device. {@link MappedBitSet}s cannot be
+ * serialized, as the mapped file already holds their state.
+ * 
+ * @author Aaron Shouldis
+ * @see DirectBitSet
+ */
+public final class MappedBitSet extends DirectBitSet {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Value stored at the beginning of each file created by
+	 * {@link #create(Path, int)}, used to recognize those files in
+	 * {@link #open(Path)}.
+	 */
+	public static final int MAGIC_NUMBER = 0x42495453;
+
+	/**
+	 * The number of bytes preceding the first word within a mapped file.
+	 */
+	public static final int HEADER_SIZE = Long.BYTES;
+
+	/**
+	 * The mapped region of the file, including the header.
+	 */
+	private final transient MappedByteBuffer mapping;
+
+	/**
+	 * Internal, private constructor.
+	 * 
+	 * @param size    the number of indices that this {@link MappedBitSet} will
+	 *                hold.
+	 * @param mapping the mapped region of the file backing this
+	 *                {@link MappedBitSet}, including the header.
+	 */
+	private MappedBitSet(final int size, final MappedByteBuffer mapping) {
+		super(size, MappedBitSet.words(mapping));
+		this.mapping = mapping;
+	}
+
+	/**
+	 * Creates a {@link MappedBitSet} with the specified <b>size</b>, stored within
+	 * the file at the specified <b>path</b>. If the file already exists, it will
+	 * be truncated. All bits are initially in the <i>dead</i> state.
+	 * 
+	 * @param path the path of the file to store the words within.
+	 * @param size the number of indices that the {@link MappedBitSet} will hold.
+	 * @return the created {@link MappedBitSet}.
+	 * @throws IllegalArgumentException if <b>size</b> is less than 0.
+	 * @throws IOException              if an I/O error occurs.
+	 * @throws NullPointerException     if <b>path</b> is null.
+	 */
+	public static MappedBitSet create(final Path path, final int size) throws IOException {
+		final long length = HEADER_SIZE + (long) BitSet.countWords(size) * Long.BYTES;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			final MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+			mapping.order(ByteOrder.LITTLE_ENDIAN);
+			mapping.putInt(0, MAGIC_NUMBER);
+			mapping.putInt(Integer.BYTES, size);
+			return new MappedBitSet(size, mapping);
+		}
+	}
+
+	/**
+	 * Opens a {@link MappedBitSet} stored within the file at the specified
+	 * <b>path</b>, previously created by {@link #create(Path, int)}. Only the
+	 * header is read; the words themselves are paged in as they are accessed.
+	 * 
+	 * @param path the path of the file storing the words.
+	 * @return the opened {@link MappedBitSet}.
+	 * @throws IOException          if an I/O error occurs, or the file was not
+	 *                              created by {@link #create(Path, int)}.
+	 * @throws NullPointerException if <b>path</b> is null.
+	 */
+	public static MappedBitSet open(final Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			final long length = channel.size();
+			if (length < HEADER_SIZE) {
+				throw new IOException(path.toString());
+			}
+			final MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+			mapping.order(ByteOrder.LITTLE_ENDIAN);
+			final int size = mapping.getInt(Integer.BYTES);
+			if (mapping.getInt(0) != MAGIC_NUMBER || size < 0
+					|| length != HEADER_SIZE + (long) BitSet.countWords(size) * Long.BYTES) {
+				throw new IOException(path.toString());
+			}
+			return new MappedBitSet(size, mapping);
+		}
+	}
+
+	/**
+	 * Creates a little-endian {@link LongBuffer} view of the words following the
+	 * header within the specified <b>mapping</b>.
+	 * 
+	 * @param mapping the mapped region of the file, including the header.
+	 * @return the {@link LongBuffer} view of the words.
+	 */
+	private static LongBuffer words(final MappedByteBuffer mapping) {
+		return mapping.slice(HEADER_SIZE, mapping.capacity() - HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+				.asLongBuffer();
+	}
+
+	/**
+	 * Forces any changes made to the state of bits within this
+	 * {@link MappedBitSet} to be written to the storage device containing the
+	 * mapped file.
+	 * 
+	 * @see MappedByteBuffer#force()
+	 */
+	public void force() {
+		mapping.force();
+	}
+
+	/**
+	 * {@link MappedBitSet}s are not serializable, as their state is already held
+	 * by the mapped file.
+	 * 
+	 * @param stream the stream to be written to.
+	 * @throws NotSerializableException always.
+	 */
+	private void writeObject(final ObjectOutputStream stream) throws IOException {
+		throw new NotSerializableException(MappedBitSet.class.getName());
+	}
+
+}
@@ -0,0 +1,324 @@
+package com.shouldis.bitset;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Succinct index built over an {@link ImmutableBitSet}, answering
+ * {@link #rank(int)} and {@link #select(int)} queries in constant time. As the
+ * state of bits within an {@link ImmutableBitSet} cannot change, the index
+ * never needs to be rebuilt.
+ * <p>
+ * The bits are divided into superblocks of {@link #SUPERBLOCK_SIZE} bits, each
+ * divided into 4 blocks. A single long is stored per superblock, holding the
+ * number of <i>live</i> bits before that superblock in its upper 32 bits, and
+ * the populations of its first 3 blocks in 10 bits each, adding roughly 3.1% to
+ * the size of the {@link ImmutableBitSet}. Additionally, the superblock
+ * containing every {@link #SAMPLE_RATE}<sup>th</sup> <i>live</i> bit is sampled
+ * to narrow the search performed by {@link #select(int)}. Where consecutive
+ * samples lie {@link #SPARSE_SUPERBLOCKS} or more superblocks apart, the
+ * index of each <i>live</i> bit between them is stored instead, so the search
+ * never covers more superblocks than that. As such sparse stretches span at
+ * least 32 bits per stored index, this adds at most another 3.1%. Hanging bits
+ * are excluded.
+ * 
+ * @author Aaron Shouldis
+ * @see ImmutableBitSet
+ */
+public final class RankSelect implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The number of bits summarized by each long within {@link #counts}.
+	 */
+	public static final int SUPERBLOCK_SIZE = 2048;
+
+	/**
+	 * The number of <i>live</i> bits between each sample within
+	 * {@link #samples}.
+	 */
+	public static final int SAMPLE_RATE = 8192;
+
+	/**
+	 * The number of superblocks between consecutive samples within
+	 * {@link #samples} at which {@link #select(int)} no longer searches
+	 * between them. The indices of the <i>live</i> bits between such samples are
+	 * held within
+	 * {@link #positions}.
+	 */
+	public static final int SPARSE_SUPERBLOCKS = 4096;
+
+	/**
+	 * log<sub>2</sub>{@link #SUPERBLOCK_SIZE}.
+	 */
+	private static final int LOG_2_SUPERBLOCK_SIZE = 11;
+
+	/**
+	 * log<sub>2</sub> of the number of bits within each block.
+	 */
+	private static final int LOG_2_BLOCK_SIZE = 9;
+
+	/**
+	 * log<sub>2</sub>{@link #SAMPLE_RATE}.
+	 */
+	private static final int LOG_2_SAMPLE_RATE = 13;
+
+	/**
+	 * The number of words within each block.
+	 */
+	private static final int BLOCK_WORDS = 1 << (LOG_2_BLOCK_SIZE - BitSet.LOG_2_SIZE);
+
+	/**
+	 * The number of bits holding the population of each block.
+	 */
+	private static final int BLOCK_BITS = 10;
+
+	/**
+	 * Mask of the bits holding the population of a single block.
+	 */
+	private static final long BLOCK_MASK = (1L << BLOCK_BITS) - 1L;
+
+	/**
+	 * The {@link ImmutableBitSet} this {@link RankSelect} indexes.
+	 */
+	public final ImmutableBitSet set;
+
+	/**
+	 * The number of <i>live</i> bits within {@link #set}.
+	 */
+	private final int population;
+
+	/**
+	 * The cumulative and per-block populations of each superblock, with an extra
+	 * superblock at the end holding {@link #population}.
+	 */
+	private final long[] counts;
+
+	/**
+	 * The index of the superblock containing every {@link #SAMPLE_RATE}<sup>th</sup>
+	 * <i>live</i> bit.
+	 */
+	private final int[] samples;
+
+	/**
+	 * The indices of the <i>live</i> bits between each pair of consecutive
+	 * samples that are at least {@link #SPARSE_SUPERBLOCKS} superblocks apart,
+	 * or null for samples that are closer.
+	 */
+	private final int[][] positions;
+
+	/**
+	 * Builds a {@link RankSelect} index over the specified <b>set</b>.
+	 * 
+	 * @param set the {@link ImmutableBitSet} to index.
+	 * @throws NullPointerException if <b>set</b> is null.
+	 */
+	public RankSelect(final ImmutableBitSet set) {
+		this.set = set;
+		final int superblocks = (int) (((long) set.size + SUPERBLOCK_SIZE - 1) >>> LOG_2_SUPERBLOCK_SIZE);
+		counts = new long[superblocks + 1];
+		int population = 0;
+		for (int superblock = 0; superblock < superblocks; superblock++) {
+			long entry = (long) population << Integer.SIZE;
+			for (int block = 0; block < 4; block++) {
+				final int start = (superblock * 4 + block) * BLOCK_WORDS;
+				final int end = Math.min(start + BLOCK_WORDS, set.wordCount);
+				int count = 0;
+				for (int i = start; i < end; i++) {
+					count += Long.bitCount(word(i));
+				}
+				if (block < 3) {
+					entry |= (long) count << (block * BLOCK_BITS);
+				}
+				population += count;
+			}
+			counts[superblock] = entry;
+		}
+		counts[superblocks] = (long) population << Integer.SIZE;
+		this.population = population;
+		samples = new int[(int) (((long) population + SAMPLE_RATE - 1) >>> LOG_2_SAMPLE_RATE) + 1];
+		for (int sample = 0, superblock = 0; sample < samples.length - 1; sample++) {
+			final int rank = sample << LOG_2_SAMPLE_RATE;
+			while (cumulative(superblock + 1) <= rank) {
+				superblock++;
+			}
+			samples[sample] = superblock;
+		}
+		samples[samples.length - 1] = Math.max(superblocks - 1, 0);
+		positions = new int[samples.length - 1][];
+		for (int sample = 0; sample < positions.length; sample++) {
+			if (samples[sample + 1] - samples[sample] >= SPARSE_SUPERBLOCKS) {
+				positions[sample] = positions(sample);
+			}
+		}
+	}
+
+	/**
+	 * Lists the indices of the <i>live</i> bits with ranks from that of the
+	 * specified <b>sample</b>, up to that of the next sample.
+	 * 
+	 * @param sample the index of the sample within {@link #samples}.
+	 * @return the indices of up to {@link #SAMPLE_RATE} <i>live</i> bits.
+	 */
+	private int[] positions(final int sample) {
+		final int first = sample << LOG_2_SAMPLE_RATE;
+		final int[] positions = new int[Math.min(SAMPLE_RATE, population - first)];
+		int skip = first - cumulative(samples[sample]);
+		int count = 0;
+		int wordIndex = samples[sample] << (LOG_2_SUPERBLOCK_SIZE - BitSet.LOG_2_SIZE);
+		while (count < positions.length) {
+			long word = word(wordIndex);
+			while (word != BitSet.DEAD && count < positions.length) {
+				if (skip > 0) {
+					skip--;
+				} else {
+					positions[count++] = BitSet.multiplySize(wordIndex) + Long.numberOfTrailingZeros(word);
+				}
+				word &= word - 1;
+			}
+			wordIndex++;
+		}
+		return positions;
+	}
+
+	/**
+	 * Reads the word at the specified <b>wordIndex</b> within {@link #set},
+	 * excluding hanging bits.
+	 * 
+	 * @param wordIndex the index of the word to read.
+	 * @return the word, without hanging bits.
+	 */
+	private long word(final int wordIndex) {
+		final long word = set.words[wordIndex];
+		return wordIndex == set.wordCount - 1 ? word & (BitSet.LIVE >>> -set.size) : word;
+	}
+
+	/**
+	 * Returns the number of <i>live</i> bits before the specified
+	 * <b>superblock</b>.
+	 * 
+	 * @param superblock the index of the superblock.
+	 * @return the cumulative population before <b>superblock</b>.
+	 */
+	private int cumulative(final int superblock) {
+		return (int) (counts[superblock] >>> Integer.SIZE);
+	}
+
+	/**
+	 * Returns the number of <i>live</i> bits within {@link #set}, excluding
+	 * hanging bits.
+	 * 
+	 * @return the number of <i>live</i> bits.
+	 */
+	public int population() {
+		return population;
+	}
+
+	/**
+	 * Calculates the number of <i>live</i> bits before the specified
+	 * <b>index</b>, excluding that <b>index</b>. At most 3 block populations and
+	 * 7 words are read.
+	 * 
+	 * @param index (exclusive) the end of the range of bits to count, between 0
+	 *              and {@link #set}.size inclusive.
+	 * @return the number of <i>live</i> bits within the range [0, <b>index</b>).
+	 * @throws IndexOutOfBoundsException if <b>index</b> is negative or greater
+	 *                                   than {@link #set}.size.
+	 */
+	public int rank(final int index) {
+		Objects.checkFromToIndex(0, index, set.size);
+		final int superblock = index >>> LOG_2_SUPERBLOCK_SIZE;
+		final long entry = counts[superblock];
+		int rank = (int) (entry >>> Integer.SIZE);
+		final int block = (index >>> LOG_2_BLOCK_SIZE) & 3;
+		for (int i = 0; i < block; i++) {
+			rank += (int) ((entry >>> (i * BLOCK_BITS)) & BLOCK_MASK);
+		}
+		final int wordIndex = BitSet.divideSize(index);
+		for (int i = wordIndex & -BLOCK_WORDS; i < wordIndex; i++) {
+			rank += Long.bitCount(set.words[i]);
+		}
+		if (BitSet.modSize(index) != 0) {
+			rank += Long.bitCount(set.words[wordIndex] & ~(BitSet.LIVE << index));
+		}
+		return rank;
+	}
+
+	/**
+	 * Calculates the index of the <i>live</i> bit with the specified
+	 * <b>rank</b>, such that {@link #rank(int)} of the result is equal to
+	 * <b>rank</b>. The sampled superblocks narrow a binary search for the
+	 * superblock containing the bit to {@link #SPARSE_SUPERBLOCKS} superblocks,
+	 * or 12 steps, after which at most 3 block populations and 8
+	 * words are read. Bits between sparse samples are read directly.
+	 * 
+	 * @param rank the number of <i>live</i> bits preceding the bit to find.
+	 * @return the index of the <i>live</i> bit with the specified <b>rank</b>.
+	 * @throws IndexOutOfBoundsException if <b>rank</b> is negative or greater
+	 *                                   than or equal to {@link #population()}.
+	 */
+	public int select(final int rank) {
+		Objects.checkIndex(rank, population);
+		final int sample = rank >>> LOG_2_SAMPLE_RATE;
+		if (positions[sample] != null) {
+			return positions[sample][rank & (SAMPLE_RATE - 1)];
+		}
+		int low = samples[sample];
+		int high = samples[sample + 1];
+		while (low < high) {
+			final int middle = (low + high + 1) >>> 1;
+			if (cumulative(middle) <= rank) {
+				low = middle;
+			} else {
+				high = middle - 1;
+			}
+		}
+		final long entry = counts[low];
+		int remaining = rank - cumulative(low);
+		int block = 0;
+		for (; block < 3; block++) {
+			final int count = (int) ((entry >>> (block * BLOCK_BITS)) & BLOCK_MASK);
+			if (remaining < count) {
+				break;
+			}
+			remaining -= count;
+		}
+		int wordIndex = (low * 4 + block) * BLOCK_WORDS;
+		long word = set.words[wordIndex];
+		int count = Long.bitCount(word);
+		while (remaining >= count) {
+			remaining -= count;
+			word = set.words[++wordIndex];
+			count = Long.bitCount(word);
+		}
+		return BitSet.multiplySize(wordIndex) + RankSelect.select(word, remaining);
+	}
+
+	/**
+	 * Calculates the position of the <i>live</i> bit with the specified
+	 * <b>rank</b> within a single <b>word</b>, by halving the searched range of
+	 * bits 6 times.
+	 * 
+	 * @param word the word to search, having more than <b>rank</b> <i>live</i>
+	 *             bits.
+	 * @param rank the number of <i>live</i> bits preceding the bit to find.
+	 * @return the position of the bit within <b>word</b>.
+	 */
+	private static int select(long word, int rank) {
+		int position = 0;
+		for (int width = Integer.SIZE; width > 0; width >>>= 1) {
+			final long low = word & ((1L << width) - 1L);
+			final int count = Long.bitCount(low);
+			if (rank >= count) {
+				rank -= count;
+				word >>>= width;
+				position += width;
+			} else {
+				word = low;
+			}
+		}
+		return position;
+	}
+
+}
@@ -0,0 +1,1243 @@
+package com.shouldis.bitset;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Compressed representation of a fixed number of bits, splitting the indices
+ * into chunks of {@link #CHUNK_SIZE} bits, in the manner of Roaring bitmaps.
+ * Each chunk holding at least one <i>live</i> bit is stored in a container
+ * chosen by the density of that chunk: a sorted array of the <i>live</i>
+ * indices for sparse chunks, a bitmap of words for dense chunks, or a list of
+ * runs for chunks made mostly of consecutive <i>live</i> bits. Chunks with no
+ * <i>live</i> bits take no space beyond a null reference, so the memory used
+ * by a {@link RoaringBitSet}, and the cost of most operations upon it, scale
+ * with its population rather than its {@link #size}.
+ * <p>
+ * {@link RoaringBitSet} interoperates with {@link BitSet} through
+ * {@link #and(BitSet)}, {@link #or(BitSet)}, {@link #xOr(BitSet)},
+ * {@link #RoaringBitSet(BitSet)} and {@link #toBitSet()}. Containers are
+ * chosen as bits are changed individually, but run containers are only chosen
+ * by bulk operations and {@link #optimize()}. Operations between two array
+ * containers merge their sorted indices, and intersections with an array
+ * container check only its indices, so the words of a chunk are only built up
+ * when the result may be too large for an array container.
+ * <p>
+ * {@link RoaringBitSet} is thread-safe only for read operations. Accessing a
+ * negative index, or any index greater than or equal to {@link #size} will
+ * cause an {@link IndexOutOfBoundsException} to be thrown.
+ * 
+ * @author Aaron Shouldis
+ * @see BitSet
+ */
+public final class RoaringBitSet implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * log<sub>2</sub> of {@link #CHUNK_SIZE}. Used to relate bit indices to chunk
+	 * indices through bit-shifting.
+	 */
+	private static final int LOG_2_CHUNK_SIZE = 16;
+
+	/**
+	 * The number of bit indices covered by each container.
+	 */
+	public static final int CHUNK_SIZE = 1 << LOG_2_CHUNK_SIZE;
+
+	/**
+	 * Mask used to compute the index of a bit within its chunk.
+	 */
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	/**
+	 * The number of words needed to hold the bits of a single chunk.
+	 */
+	private static final int CHUNK_WORDS = BitSet.divideSize(CHUNK_SIZE);
+
+	/**
+	 * The largest population held by an array container. Above this population,
+	 * a bitmap container takes less space.
+	 */
+	private static final int ARRAY_LIMIT = 4096;
+
+	/**
+	 * The number of indices accessible by this {@link RoaringBitSet}. Indices
+	 * <b>0</b> through <b>size -1</b> are accessible.
+	 */
+	public final int size;
+
+	/**
+	 * The containers holding the state of each chunk of bits, or null for chunks
+	 * with no <i>live</i> bits.
+	 */
+	private final Container[] containers;
+
+	/**
+	 * Creates a {@link RoaringBitSet} with the specified number of bit indices.
+	 * Indices 0 through <b>size</b> -1 will be accessible. All bits are initially
+	 * in the <i>dead</i> state.
+	 * 
+	 * @param size the number of bit indices that this {@link RoaringBitSet} will
+	 *             hold.
+	 * @throws IllegalArgumentException if <b>size</b> is less than 0.
+	 */
+	public RoaringBitSet(final int size) {
+		if (size < 0) {
+			throw new IllegalArgumentException(Integer.toString(size));
+		}
+		this.size = size;
+		containers = new Container[(int) ((size + (long) CHUNK_MASK) >>> LOG_2_CHUNK_SIZE)];
+	}
+
+	/**
+	 * Creates a {@link RoaringBitSet} holding the same bits as the specified
+	 * {@link BitSet} <b>set</b>, with an identical {@link #size}. Hanging bits of
+	 * <b>set</b> are not included.
+	 * 
+	 * @param set the {@link BitSet} to copy.
+	 * @throws NullPointerException if <b>set</b> is null.
+	 */
+	public RoaringBitSet(final BitSet set) {
+		this(set.size);
+		or(set);
+	}
+
+	/**
+	 * Checks the current state of the bit at the specified <b>index</b>.
+	 * 
+	 * @param index the index of the bit to examine.
+	 * @return whether the bit at the specified <b>index</b> is in the <i>live</i>
+	 *         state.
+	 * @throws IndexOutOfBoundsException if <b>index</b> is negative or greater than
+	 *                                   or equal to {@link #size}.
+	 */
+	public boolean get(final int index) {
+		Objects.checkIndex(index, size);
+		final Container container = containers[index >>> LOG_2_CHUNK_SIZE];
+		return container != null && container.contains(index & CHUNK_MASK);
+	}
+
+	/**
+	 * Changes the state of a bit at the specified <b>index</b> to the <i>live</i>
+	 * state.
+	 * 
+	 * @param index the index of the bit to change to the <i>live</i> state.
+	 * @throws IndexOutOfBoundsException if <b>index</b> is negative or greater than
+	 *                                   or equal to {@link #size}.
+	 */
+	public void set(final int index) {
+		Objects.checkIndex(index, size);
+		final int chunk = index >>> LOG_2_CHUNK_SIZE;
+		final Container container = containers[chunk];
+		if (container == null) {
+			containers[chunk] = new ArrayContainer(index & CHUNK_MASK);
+		} else {
+			containers[chunk] = container.add(index & CHUNK_MASK);
+		}
+	}
+
+	/**
+	 * Changes the state of a bit at the specified <b>index</b> to the <i>dead</i>
+	 * state.
+	 * 
+	 * @param index the index of the bit to clear.
+	 * @throws IndexOutOfBoundsException if <b>index</b> is negative or greater than
+	 *                                   or equal to {@link #size}.
+	 */
+	public void clear(final int index) {
+		Objects.checkIndex(index, size);
+		final int chunk = index >>> LOG_2_CHUNK_SIZE;
+		final Container container = containers[chunk];
+		if (container != null) {
+			containers[chunk] = container.remove(index & CHUNK_MASK);
+		}
+	}
+
+	/**
+	 * Ensures that the bit at the specified <b>index</b> is in the <i>live</i>
+	 * state. If it is not, it will be changed.
+	 * 
+	 * @param index the index of the bit to change to the <i>live</i> state.
+	 * @return whether or not this {@link RoaringBitSet} was changed as a result.
+	 * @throws IndexOutOfBoundsException if <b>index</b> is negative or greater than
+	 *                                   or equal to {@link #size}.
+	 */
+	public boolean add(final int index) {
+		if (get(index)) {
+			return false;
+		}
+		set(index);
+		return true;
+	}
+
+	/**
+	 * Ensures that the bit at the specified <b>index</b> is in the <i>dead</i>
+	 * state. If it is not, it will be changed.
+	 * 
+	 * @param index the index of the bit to change to the <i>dead</i> state.
+	 * @return whether or not this {@link RoaringBitSet} was changed as a result.
+	 * @throws IndexOutOfBoundsException if <b>index</b> is negative or greater than
+	 *                                   or equal to {@link #size}.
+	 */
+	public boolean remove(final int index) {
+		if (!get(index)) {
+			return false;
+		}
+		clear(index);
+		return true;
+	}
+
+	/**
+	 * Calculates the number of <i>live</i> bits within this {@link RoaringBitSet}.
+	 * 
+	 * @return the number of <i>live</i> bits.
+	 */
+	public int population() {
+		int population = 0;
+		for (final Container container : containers) {
+			if (container != null) {
+				population += container.cardinality();
+			}
+		}
+		return population;
+	}
+
+	/**
+	 * Calculates what percentage of bits in this {@link RoaringBitSet} are in the
+	 * <i>live</i> state.
+	 * 
+	 * @return the percentage of <i>live</i> bits.
+	 */
+	public double density() {
+		return population() / (double) size;
+	}
+
+	/**
+	 * Creates an {@link IntStream} consisting of the indices of all <i>live</i>
+	 * bits within this {@link RoaringBitSet} in ascending order. The stream may be
+	 * processed in parallel, with each chunk decoded independently.
+	 * 
+	 * @return an {@link IntStream} representation of the bit indices in the
+	 *         <i>live</i> state.
+	 */
+	public IntStream live() {
+		final Container[] containers = this.containers;
+		return IntStream.range(0, containers.length).filter((final int chunk) -> containers[chunk] != null)
+				.flatMap((final int chunk) -> IntStream.of(containers[chunk].toArray(chunk << LOG_2_CHUNK_SIZE)));
+	}
+
+	/**
+	 * Performs a global {@code AND} operation on all bits in this
+	 * {@link RoaringBitSet} with those in the specified {@link BitSet} <b>set</b>.
+	 * Only chunks of this {@link RoaringBitSet} holding <i>live</i> bits are
+	 * visited.
+	 * 
+	 * @param set the {@link BitSet} from which to perform the {@code AND}
+	 *            operation.
+	 * @throws IllegalArgumentException if the sizes of both sets are not equal.
+	 * @throws NullPointerException     if <b>set</b> is null.
+	 */
+	public void and(final BitSet set) {
+		checkSize(set.size);
+		final long[] buffer = new long[CHUNK_WORDS];
+		for (int i = 0; i < containers.length; i++) {
+			final Container container = containers[i];
+			if (container instanceof ArrayContainer) {
+				containers[i] = ((ArrayContainer) container).retain(set, i << LOG_2_CHUNK_SIZE);
+			} else if (container != null) {
+				containers[i] = apply(container, set, i, WordBiFunction.AND, buffer);
+			}
+		}
+	}
+
+	/**
+	 * Performs a global {@code OR} operation on all bits in this
+	 * {@link RoaringBitSet} with those in the specified {@link BitSet} <b>set</b>.
+	 * Hanging bits of <b>set</b> are not included.
+	 * 
+	 * @param set the {@link BitSet} from which to perform the {@code OR} operation.
+	 * @throws IllegalArgumentException if the sizes of both sets are not equal.
+	 * @throws NullPointerException     if <b>set</b> is null.
+	 */
+	public void or(final BitSet set) {
+		checkSize(set.size);
+		final long[] buffer = new long[CHUNK_WORDS];
+		for (int i = 0; i < containers.length; i++) {
+			containers[i] = apply(containers[i], set, i, WordBiFunction.OR, buffer);
+		}
+	}
+
+	/**
+	 * Performs a global {@code XOR} operation on all bits in this
+	 * {@link RoaringBitSet} with those in the specified {@link BitSet} <b>set</b>.
+	 * Hanging bits of <b>set</b> are not included.
+	 * 
+	 * @param set the {@link BitSet} from which to perform the {@code XOR}
+	 *            operation.
+	 * @throws IllegalArgumentException if the sizes of both sets are not equal.
+	 * @throws NullPointerException     if <b>set</b> is null.
+	 */
+	public void xOr(final BitSet set) {
+		checkSize(set.size);
+		final long[] buffer = new long[CHUNK_WORDS];
+		for (int i = 0; i < containers.length; i++) {
+			containers[i] = apply(containers[i], set, i, WordBiFunction.XOR, buffer);
+		}
+	}
+
+	/**
+	 * Performs a global {@code AND} operation on all bits in this
+	 * {@link RoaringBitSet} with those in the specified {@link RoaringBitSet}
+	 * <b>set</b>. Only chunks holding <i>live</i> bits in both sets are visited.
+	 * 
+	 * @param set the {@link RoaringBitSet} from which to perform the {@code AND}
+	 *            operation.
+	 * @throws IllegalArgumentException if the sizes of both sets are not equal.
+	 * @throws NullPointerException     if <b>set</b> is null.
+	 */
+	public void and(final RoaringBitSet set) {
+		checkSize(set.size);
+		final long[] buffer = new long[CHUNK_WORDS];
+		final long[] other = new long[CHUNK_WORDS];
+		for (int i = 0; i < containers.length; i++) {
+			final Container container = containers[i];
+			final Container mask = set.containers[i];
+			if (container == null) {
+				continue;
+			} else if (mask == null) {
+				containers[i] = null;
+			} else if (container instanceof ArrayContainer) {
+				containers[i] = ((ArrayContainer) container).retain(mask);
+			} else if (mask instanceof ArrayContainer) {
+				containers[i] = ((ArrayContainer) mask.copy()).retain(container);
+			} else {
+				containers[i] = RoaringBitSet.apply(container, mask, WordBiFunction.AND, buffer, other);
+			}
+		}
+	}
+
+	/**
+	 * Performs a global {@code OR} operation on all bits in this
+	 * {@link RoaringBitSet} with those in the specified {@link RoaringBitSet}
+	 * <b>set</b>. Only chunks holding <i>live</i> bits in either set are visited.
+	 * 
+	 * @param set the {@link RoaringBitSet} from which to perform the {@code OR}
+	 *            operation.
+	 * @throws IllegalArgumentException if the sizes of both sets are not equal.
+	 * @throws NullPointerException     if <b>set</b> is null.
+	 */
+	public void or(final RoaringBitSet set) {
+		checkSize(set.size);
+		final long[] buffer = new long[CHUNK_WORDS];
+		final long[] other = new long[CHUNK_WORDS];
+		for (int i = 0; i < containers.length; i++) {
+			final Container container = containers[i];
+			final Container mask = set.containers[i];
+			if (mask == null) {
+				continue;
+			} else if (container == null) {
+				containers[i] = mask.copy();
+			} else if (container instanceof ArrayContainer && mask instanceof ArrayContainer) {
+				containers[i] = ((ArrayContainer) container).merge((ArrayContainer) mask, false, buffer);
+			} else {
+				containers[i] = RoaringBitSet.apply(container, mask, WordBiFunction.OR, buffer, other);
+			}
+		}
+	}
+
+	/**
+	 * Performs a global {@code XOR} operation on all bits in this
+	 * {@link RoaringBitSet} with those in the specified {@link RoaringBitSet}
+	 * <b>set</b>. Only chunks holding <i>live</i> bits in either set are visited.
+	 * 
+	 * @param set the {@link RoaringBitSet} from which to perform the {@code XOR}
+	 *            operation.
+	 * @throws IllegalArgumentException if the sizes of both sets are not equal.
+	 * @throws NullPointerException     if <b>set</b> is null.
+	 */
+	public void xOr(final RoaringBitSet set) {
+		checkSize(set.size);
+		final long[] buffer = new long[CHUNK_WORDS];
+		final long[] other = new long[CHUNK_WORDS];
+		for (int i = 0; i < containers.length; i++) {
+			final Container container = containers[i];
+			final Container mask = set.containers[i];
+			if (mask == null) {
+				continue;
+			} else if (container == null) {
+				containers[i] = mask.copy();
+			} else if (container instanceof ArrayContainer && mask instanceof ArrayContainer) {
+				containers[i] = ((ArrayContainer) container).merge((ArrayContainer) mask, true, buffer);
+			} else {
+				containers[i] = RoaringBitSet.apply(container, mask, WordBiFunction.XOR, buffer, other);
+			}
+		}
+	}
+
+	/**
+	 * Re-chooses the container used by each chunk, allowing chunks built up
+	 * through individual changes to be stored as runs where that is more compact.
+	 */
+	public void optimize() {
+		final long[] buffer = new long[CHUNK_WORDS];
+		for (int i = 0; i < containers.length; i++) {
+			if (containers[i] != null) {
+				containers[i].toWords(buffer);
+				containers[i] = Container.of(buffer);
+			}
+		}
+	}
+
+	/**
+	 * Creates a {@link BitSet} with an identical {@link #size}, holding the same
+	 * bits as this {@link RoaringBitSet}.
+	 * 
+	 * @return the created {@link BitSet}.
+	 */
+	public BitSet toBitSet() {
+		final BitSet set = new BitSet(size);
+		final long[] buffer = new long[CHUNK_WORDS];
+		for (int i = 0; i < containers.length; i++) {
+			if (containers[i] != null) {
+				containers[i].toWords(buffer);
+				final int offset = i * CHUNK_WORDS;
+				final int count = Math.min(CHUNK_WORDS, set.wordCount - offset);
+				for (int j = 0; j < count; j++) {
+					set.setWord(offset + j, buffer[j]);
+				}
+			}
+		}
+		return set;
+	}
+
+	/**
+	 * Applies the specified <b>function</b> between the words of the specified
+	 * <b>container</b> and the corresponding words of the specified {@link BitSet}
+	 * <b>set</b>, discarding any bits beyond {@link #size}.
+	 * 
+	 * @param container the container of the chunk, or null if it is empty.
+	 * @param set       the {@link BitSet} supplying the second argument of
+	 *                  <b>function</b>.
+	 * @param chunk     the index of the chunk.
+	 * @param function  the {@link WordBiFunction} to apply.
+	 * @param buffer    a buffer of {@link #CHUNK_WORDS} words to use.
+	 * @return the container holding the result, or null if it is empty.
+	 */
+	private Container apply(final Container container, final BitSet set, final int chunk,
+			final WordBiFunction function, final long[] buffer) {
+		if (container == null) {
+			Arrays.fill(buffer, BitSet.DEAD);
+		} else {
+			container.toWords(buffer);
+		}
+		final int offset = chunk * CHUNK_WORDS;
+		final int count = Math.min(CHUNK_WORDS, set.wordCount - offset);
+		for (int i = 0; i < count; i++) {
+			buffer[i] = function.apply(buffer[i], set.getWord(offset + i));
+		}
+		final int hanging = size - (chunk << LOG_2_CHUNK_SIZE);
+		if (hanging < CHUNK_SIZE) {
+			final int last = BitSet.divideSize(hanging);
+			if (BitSet.modSize(hanging) > 0) {
+				buffer[last] &= BitSet.LIVE >>> -hanging;
+				Arrays.fill(buffer, last + 1, CHUNK_WORDS, BitSet.DEAD);
+			} else {
+				Arrays.fill(buffer, last, CHUNK_WORDS, BitSet.DEAD);
+			}
+		}
+		return Container.of(buffer);
+	}
+
+	/**
+	 * Applies the specified <b>function</b> between the words of the two specified
+	 * containers.
+	 * 
+	 * @param container the container supplying the first argument of
+	 *                  <b>function</b>.
+	 * @param mask      the container supplying the second argument of
+	 *                  <b>function</b>.
+	 * @param function  the {@link WordBiFunction} to apply.
+	 * @param buffer    a buffer of {@link #CHUNK_WORDS} words to use.
+	 * @param other     a second buffer of {@link #CHUNK_WORDS} words to use.
+	 * @return the container holding the result, or null if it is empty.
+	 */
+	private static Container apply(final Container container, final Container mask, final WordBiFunction function,
+			final long[] buffer, final long[] other) {
+		container.toWords(buffer);
+		mask.toWords(other);
+		for (int i = 0; i < CHUNK_WORDS; i++) {
+			buffer[i] = function.apply(buffer[i], other[i]);
+		}
+		return Container.of(buffer);
+	}
+
+	/**
+	 * Ensures that the specified <b>size</b> is equal to {@link #size}.
+	 * 
+	 * @param size the size of the other set.
+	 * @throws IllegalArgumentException if the sizes are not equal.
+	 */
+	private void checkSize(final int size) {
+		if (size != this.size) {
+			throw new IllegalArgumentException(Integer.toString(size));
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		long hash = size;
+		final long[] buffer = new long[CHUNK_WORDS];
+		for (int i = 0; i < containers.length; i++) {
+			if (containers[i] != null) {
+				containers[i].toWords(buffer);
+				hash = 31L * hash + i;
+				hash = 31L * hash + Arrays.hashCode(buffer);
+			}
+		}
+		return (int) (hash ^ (hash >>> Integer.SIZE));
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (obj == null) {
+			return false;
+		}
+		if (obj == this) {
+			return true;
+		}
+		if (!(obj instanceof RoaringBitSet) || ((RoaringBitSet) obj).size != size) {
+			return false;
+		}
+		final Container[] others = ((RoaringBitSet) obj).containers;
+		final long[] buffer = new long[CHUNK_WORDS];
+		final long[] other = new long[CHUNK_WORDS];
+		for (int i = 0; i < containers.length; i++) {
+			final Container container = containers[i];
+			final Container mask = others[i];
+			if (container == null || mask == null) {
+				if (container != mask) {
+					return false;
+				}
+			} else if (container.cardinality() != mask.cardinality()) {
+				return false;
+			} else {
+				container.toWords(buffer);
+				mask.toWords(other);
+				if (!Arrays.equals(buffer, other)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Holds the <i>live</i> bits of a single chunk, represented by indices
+	 * relative to the start of that chunk. Mutating operations return the
+	 * container that should replace this one, which is null if it has become
+	 * empty.
+	 */
+	private abstract static class Container implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Calculates the number of <i>live</i> bits within this container.
+		 * 
+		 * @return the number of <i>live</i> bits.
+		 */
+		abstract int cardinality();
+
+		/**
+		 * Checks the state of the bit at the specified <b>index</b>.
+		 * 
+		 * @param index the index within the chunk to examine.
+		 * @return whether the bit is in the <i>live</i> state.
+		 */
+		abstract boolean contains(int index);
+
+		/**
+		 * Changes the state of the bit at the specified <b>index</b> to the
+		 * <i>live</i> state.
+		 * 
+		 * @param index the index within the chunk to change.
+		 * @return the container that should replace this one.
+		 */
+		abstract Container add(int index);
+
+		/**
+		 * Changes the state of the bit at the specified <b>index</b> to the
+		 * <i>dead</i> state.
+		 * 
+		 * @param index the index within the chunk to change.
+		 * @return the container that should replace this one, or null if it is
+		 *         empty.
+		 */
+		abstract Container remove(int index);
+
+		/**
+		 * Overwrites the specified <b>words</b> with the state of this container.
+		 * 
+		 * @param words an array of {@link #CHUNK_WORDS} words.
+		 */
+		abstract void toWords(long[] words);
+
+		/**
+		 * Lists the indices of all <i>live</i> bits within this container in
+		 * ascending order, each offset by <b>base</b>.
+		 * 
+		 * @param base the index of the first bit of this chunk.
+		 * @return the indices of all <i>live</i> bits.
+		 */
+		abstract int[] toArray(int base);
+
+		/**
+		 * Creates a copy of this container.
+		 * 
+		 * @return the copy of this container.
+		 */
+		abstract Container copy();
+
+		/**
+		 * Creates the most compact container holding the bits within the specified
+		 * <b>words</b>.
+		 * 
+		 * @param words an array of {@link #CHUNK_WORDS} words.
+		 * @return the created container, or null if <b>words</b> are all
+		 *         {@link BitSet#DEAD}.
+		 */
+		static Container of(final long[] words) {
+			int cardinality = 0;
+			int runs = 0;
+			long carry = BitSet.DEAD;
+			for (final long word : words) {
+				cardinality += Long.bitCount(word);
+				runs += Long.bitCount(word & ~((word << 1) | carry));
+				carry = word >>> BitSet.MOD_SIZE_MASK;
+			}
+			if (cardinality == 0) {
+				return null;
+			}
+			if (Container.runsSmallest(runs, cardinality)) {
+				return RunContainer.of(words, runs, cardinality);
+			}
+			if (cardinality <= ARRAY_LIMIT) {
+				return ArrayContainer.of(words, cardinality);
+			}
+			return new BitmapContainer(words.clone(), cardinality);
+		}
+
+		/**
+		 * Determines whether a {@link RunContainer} would be smaller than both an
+		 * {@link ArrayContainer} and a {@link BitmapContainer} holding the same bits.
+		 * Otherwise, an {@link ArrayContainer} is smallest while <b>cardinality</b>
+		 * is at most {@link #ARRAY_LIMIT}.
+		 * 
+		 * @param runs        the number of runs of <i>live</i> bits.
+		 * @param cardinality the number of <i>live</i> bits.
+		 * @return whether a {@link RunContainer} is the most compact container.
+		 */
+		static boolean runsSmallest(final int runs, final int cardinality) {
+			final int arrayBytes = cardinality <= ARRAY_LIMIT ? cardinality * Character.BYTES : Integer.MAX_VALUE;
+			final int runBytes = runs * Character.BYTES * 2;
+			final int bitmapBytes = CHUNK_WORDS * Long.BYTES;
+			return runBytes < arrayBytes && runBytes < bitmapBytes;
+		}
+
+	}
+
+	/**
+	 * Container storing the sorted indices of <i>live</i> bits, used for sparse
+	 * chunks holding at most {@link #ARRAY_LIMIT} <i>live</i> bits.
+	 */
+	private static final class ArrayContainer extends Container {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The sorted indices of <i>live</i> bits, valid up to {@link #cardinality}.
+		 */
+		private char[] values;
+
+		/**
+		 * The number of valid indices within {@link #values}.
+		 */
+		private int cardinality;
+
+		/**
+		 * Creates an {@link ArrayContainer} holding the specified indices.
+		 * 
+		 * @param values      the sorted indices of <i>live</i> bits.
+		 * @param cardinality the number of valid indices within <b>values</b>.
+		 */
+		ArrayContainer(final char[] values, final int cardinality) {
+			this.values = values;
+			this.cardinality = cardinality;
+		}
+
+		/**
+		 * Creates an {@link ArrayContainer} holding the single specified
+		 * <b>index</b>.
+		 * 
+		 * @param index the index of the <i>live</i> bit.
+		 */
+		ArrayContainer(final int index) {
+			this(new char[] { (char) index }, 1);
+		}
+
+		/**
+		 * Creates an {@link ArrayContainer} holding the <i>live</i> bits within the
+		 * specified <b>words</b>.
+		 * 
+		 * @param words       an array of {@link #CHUNK_WORDS} words.
+		 * @param cardinality the number of <i>live</i> bits within <b>words</b>.
+		 * @return the created {@link ArrayContainer}.
+		 */
+		static ArrayContainer of(final long[] words, final int cardinality) {
+			final char[] values = new char[cardinality];
+			int count = 0;
+			for (int i = 0; i < words.length; i++) {
+				long word = words[i];
+				while (word != BitSet.DEAD) {
+					values[count++] = (char) (BitSet.multiplySize(i) + Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+			return new ArrayContainer(values, cardinality);
+		}
+
+		@Override
+		int cardinality() {
+			return cardinality;
+		}
+
+		@Override
+		boolean contains(final int index) {
+			return Arrays.binarySearch(values, 0, cardinality, (char) index) >= 0;
+		}
+
+		@Override
+		Container add(final int index) {
+			int position = Arrays.binarySearch(values, 0, cardinality, (char) index);
+			if (position >= 0) {
+				return this;
+			}
+			if (cardinality == ARRAY_LIMIT) {
+				final long[] words = new long[CHUNK_WORDS];
+				toWords(words);
+				return new BitmapContainer(words, cardinality).add(index);
+			}
+			position = -(position + 1);
+			if (cardinality == values.length) {
+				values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, Math.max(4, cardinality << 1)));
+			}
+			System.arraycopy(values, position, values, position + 1, cardinality - position);
+			values[position] = (char) index;
+			cardinality++;
+			return this;
+		}
+
+		@Override
+		Container remove(final int index) {
+			final int position = Arrays.binarySearch(values, 0, cardinality, (char) index);
+			if (position < 0) {
+				return this;
+			}
+			if (--cardinality == 0) {
+				return null;
+			}
+			System.arraycopy(values, position + 1, values, position, cardinality - position);
+			return this;
+		}
+
+		/**
+		 * Removes the indices that are in the <i>dead</i> state within the
+		 * specified {@link BitSet} <b>set</b>.
+		 * 
+		 * @param set  the {@link BitSet} to check each index against.
+		 * @param base the index of the first bit of this chunk.
+		 * @return the container that should replace this one, or null if it is
+		 *         empty.
+		 */
+		Container retain(final BitSet set, final int base) {
+			int count = 0;
+			for (int i = 0; i < cardinality; i++) {
+				if (set.get(base + values[i])) {
+					values[count++] = values[i];
+				}
+			}
+			cardinality = count;
+			return count == 0 ? null : this;
+		}
+
+		/**
+		 * Removes the indices that are in the <i>dead</i> state within the
+		 * specified container <b>mask</b>.
+		 * 
+		 * @param mask the container to check each index against.
+		 * @return the container that should replace this one, or null if it is
+		 *         empty.
+		 */
+		Container retain(final Container mask) {
+			if (mask instanceof ArrayContainer) {
+				return retain((ArrayContainer) mask);
+			}
+			int count = 0;
+			for (int i = 0; i < cardinality; i++) {
+				if (mask.contains(values[i])) {
+					values[count++] = values[i];
+				}
+			}
+			cardinality = count;
+			return count == 0 ? null : this;
+		}
+
+		/**
+		 * Removes the indices that are not held by the specified
+		 * {@link ArrayContainer} <b>mask</b>, merging the sorted indices of both.
+		 * 
+		 * @param mask the {@link ArrayContainer} to check each index against.
+		 * @return the container that should replace this one, or null if it is
+		 *         empty.
+		 */
+		private Container retain(final ArrayContainer mask) {
+			int count = 0;
+			int i = 0;
+			int j = 0;
+			while (i < cardinality && j < mask.cardinality) {
+				if (values[i] < mask.values[j]) {
+					i++;
+				} else if (values[i] > mask.values[j]) {
+					j++;
+				} else {
+					values[count++] = values[i++];
+					j++;
+				}
+			}
+			cardinality = count;
+			return count == 0 ? null : this;
+		}
+
+		/**
+		 * Combines the indices of this container with those of the specified
+		 * {@link ArrayContainer} <b>other</b>, performing an {@code OR} operation,
+		 * or an {@code XOR} operation if <b>exclusive</b> is {@code true}. The
+		 * sorted indices of both are merged unless the result may hold more than
+		 * {@link #ARRAY_LIMIT} indices, in which case it is built up within
+		 * <b>buffer</b>.
+		 * 
+		 * @param other     the {@link ArrayContainer} to combine with.
+		 * @param exclusive whether indices held by both containers are removed.
+		 * @param buffer    a buffer of {@link #CHUNK_WORDS} words to use.
+		 * @return the container that should replace this one, or null if it is
+		 *         empty.
+		 */
+		Container merge(final ArrayContainer other, final boolean exclusive, final long[] buffer) {
+			if (cardinality + other.cardinality > ARRAY_LIMIT) {
+				toWords(buffer);
+				for (int i = 0; i < other.cardinality; i++) {
+					final int wordIndex = BitSet.divideSize(other.values[i]);
+					final long mask = BitSet.bitMask(other.values[i]);
+					buffer[wordIndex] = exclusive ? buffer[wordIndex] ^ mask : buffer[wordIndex] | mask;
+				}
+				return Container.of(buffer);
+			}
+			final char[] merged = new char[cardinality + other.cardinality];
+			int count = 0;
+			int i = 0;
+			int j = 0;
+			while (i < cardinality && j < other.cardinality) {
+				if (values[i] < other.values[j]) {
+					merged[count++] = values[i++];
+				} else if (values[i] > other.values[j]) {
+					merged[count++] = other.values[j++];
+				} else {
+					if (!exclusive) {
+						merged[count++] = values[i];
+					}
+					i++;
+					j++;
+				}
+			}
+			System.arraycopy(values, i, merged, count, cardinality - i);
+			count += cardinality - i;
+			System.arraycopy(other.values, j, merged, count, other.cardinality - j);
+			count += other.cardinality - j;
+			return count == 0 ? null : new ArrayContainer(merged, count);
+		}
+
+		@Override
+		void toWords(final long[] words) {
+			Arrays.fill(words, BitSet.DEAD);
+			for (int i = 0; i < cardinality; i++) {
+				words[BitSet.divideSize(values[i])] |= BitSet.bitMask(values[i]);
+			}
+		}
+
+		@Override
+		int[] toArray(final int base) {
+			final int[] array = new int[cardinality];
+			for (int i = 0; i < cardinality; i++) {
+				array[i] = base + values[i];
+			}
+			return array;
+		}
+
+		@Override
+		Container copy() {
+			return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+		}
+
+	}
+
+	/**
+	 * Container storing the state of each bit within {@link #CHUNK_WORDS} words,
+	 * used for dense chunks.
+	 */
+	private static final class BitmapContainer extends Container {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The words holding the state of each bit in the chunk.
+		 */
+		private final long[] words;
+
+		/**
+		 * The number of <i>live</i> bits within {@link #words}.
+		 */
+		private int cardinality;
+
+		/**
+		 * Creates a {@link BitmapContainer} using the specified <b>words</b>.
+		 * 
+		 * @param words       an array of {@link #CHUNK_WORDS} words.
+		 * @param cardinality the number of <i>live</i> bits within <b>words</b>.
+		 */
+		BitmapContainer(final long[] words, final int cardinality) {
+			this.words = words;
+			this.cardinality = cardinality;
+		}
+
+		@Override
+		int cardinality() {
+			return cardinality;
+		}
+
+		@Override
+		boolean contains(final int index) {
+			return (words[BitSet.divideSize(index)] & BitSet.bitMask(index)) != BitSet.DEAD;
+		}
+
+		@Override
+		Container add(final int index) {
+			final int wordIndex = BitSet.divideSize(index);
+			final long mask = BitSet.bitMask(index);
+			if ((words[wordIndex] & mask) == BitSet.DEAD) {
+				words[wordIndex] |= mask;
+				cardinality++;
+			}
+			return this;
+		}
+
+		@Override
+		Container remove(final int index) {
+			final int wordIndex = BitSet.divideSize(index);
+			final long mask = BitSet.bitMask(index);
+			if ((words[wordIndex] & mask) == BitSet.DEAD) {
+				return this;
+			}
+			words[wordIndex] &= ~mask;
+			if (--cardinality <= ARRAY_LIMIT) {
+				return ArrayContainer.of(words, cardinality);
+			}
+			return this;
+		}
+
+		@Override
+		void toWords(final long[] words) {
+			System.arraycopy(this.words, 0, words, 0, CHUNK_WORDS);
+		}
+
+		@Override
+		int[] toArray(final int base) {
+			final int[] array = new int[cardinality];
+			int count = 0;
+			for (int i = 0; i < CHUNK_WORDS; i++) {
+				long word = words[i];
+				while (word != BitSet.DEAD) {
+					array[count++] = base + BitSet.multiplySize(i) + Long.numberOfTrailingZeros(word);
+					word &= word - 1;
+				}
+			}
+			return array;
+		}
+
+		@Override
+		Container copy() {
+			return new BitmapContainer(words.clone(), cardinality);
+		}
+
+	}
+
+	/**
+	 * Container storing runs of consecutive <i>live</i> bits, each as the index of
+	 * the first bit of the run, and the length of the run minus 1.
+	 */
+	private static final class RunContainer extends Container {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The start and length minus 1 of each run, in ascending order.
+		 */
+		private final char[] runs;
+
+		/**
+		 * The number of <i>live</i> bits covered by {@link #runs}.
+		 */
+		private final int cardinality;
+
+		/**
+		 * Creates a {@link RunContainer} using the specified <b>runs</b>.
+		 * 
+		 * @param runs        the start and length minus 1 of each run.
+		 * @param cardinality the number of <i>live</i> bits covered by <b>runs</b>.
+		 */
+		RunContainer(final char[] runs, final int cardinality) {
+			this.runs = runs;
+			this.cardinality = cardinality;
+		}
+
+		/**
+		 * Creates a {@link RunContainer} holding the runs of <i>live</i> bits within
+		 * the specified <b>words</b>.
+		 * 
+		 * @param words       an array of {@link #CHUNK_WORDS} words.
+		 * @param runCount    the number of runs within <b>words</b>.
+		 * @param cardinality the number of <i>live</i> bits within <b>words</b>.
+		 * @return the created {@link RunContainer}.
+		 */
+		static RunContainer of(final long[] words, final int runCount, final int cardinality) {
+			final char[] runs = new char[runCount << 1];
+			int count = 0;
+			int index = RunContainer.next(words, 0, false);
+			while (index < CHUNK_SIZE) {
+				final int end = RunContainer.next(words, index, true);
+				runs[count++] = (char) index;
+				runs[count++] = (char) (end - index - 1);
+				index = RunContainer.next(words, end, false);
+			}
+			return new RunContainer(runs, cardinality);
+		}
+
+		/**
+		 * Creates the most compact container holding the specified <b>runs</b>,
+		 * which is a {@link RunContainer} unless another container would be
+		 * smaller.
+		 * 
+		 * @param runs        the start and length minus 1 of each run.
+		 * @param cardinality the number of <i>live</i> bits covered by <b>runs</b>.
+		 * @return the created container.
+		 */
+		static Container of(final char[] runs, final int cardinality) {
+			final RunContainer container = new RunContainer(runs, cardinality);
+			if (Container.runsSmallest(runs.length >>> 1, cardinality)) {
+				return container;
+			}
+			if (cardinality <= ARRAY_LIMIT) {
+				final char[] values = new char[cardinality];
+				int count = 0;
+				for (int i = 0; i < runs.length; i += 2) {
+					final int end = runs[i] + runs[i + 1];
+					for (int index = runs[i]; index <= end; index++) {
+						values[count++] = (char) index;
+					}
+				}
+				return new ArrayContainer(values, cardinality);
+			}
+			final long[] words = new long[CHUNK_WORDS];
+			container.toWords(words);
+			return new BitmapContainer(words, cardinality);
+		}
+
+		/**
+		 * Finds the next bit at or after <b>index</b> within <b>words</b> in the
+		 * <i>live</i> state, or in the <i>dead</i> state if <b>dead</b> is
+		 * {@code true}.
+		 * 
+		 * @param words an array of {@link #CHUNK_WORDS} words.
+		 * @param index (inclusive) the first index to check.
+		 * @param dead  whether to search for a <i>dead</i> bit.
+		 * @return the index of the next matching bit, or {@link #CHUNK_SIZE} if none
+		 *         were found.
+		 */
+		private static int next(final long[] words, final int index, final boolean dead) {
+			if (index >= CHUNK_SIZE) {
+				return CHUNK_SIZE;
+			}
+			final long flip = dead ? BitSet.LIVE : BitSet.DEAD;
+			int wordIndex = BitSet.divideSize(index);
+			long word = (words[wordIndex] ^ flip) & (BitSet.LIVE << index);
+			while (word == BitSet.DEAD) {
+				if (++wordIndex == CHUNK_WORDS) {
+					return CHUNK_SIZE;
+				}
+				word = words[wordIndex] ^ flip;
+			}
+			return BitSet.multiplySize(wordIndex) + Long.numberOfTrailingZeros(word);
+		}
+
+		@Override
+		int cardinality() {
+			return cardinality;
+		}
+
+		/**
+		 * Finds the last run starting at or before the specified <b>index</b>.
+		 * 
+		 * @param index the index within the chunk to search for.
+		 * @return the position of the run among {@link #runs}, or -1 if every run
+		 *         starts after <b>index</b>.
+		 */
+		private int find(final int index) {
+			int low = 0;
+			int high = (runs.length >>> 1) - 1;
+			while (low <= high) {
+				final int middle = (low + high) >>> 1;
+				if (runs[middle << 1] <= index) {
+					low = middle + 1;
+				} else {
+					high = middle - 1;
+				}
+			}
+			return high;
+		}
+
+		/**
+		 * Calculates the index of the last bit of the specified <b>run</b>.
+		 * 
+		 * @param run the position of the run among {@link #runs}.
+		 * @return (inclusive) the last index of the run.
+		 */
+		private int end(final int run) {
+			return runs[run << 1] + runs[(run << 1) + 1];
+		}
+
+		@Override
+		boolean contains(final int index) {
+			final int run = find(index);
+			return run >= 0 && index <= end(run);
+		}
+
+		@Override
+		Container add(final int index) {
+			final int run = find(index);
+			if (run >= 0 && index <= end(run)) {
+				return this;
+			}
+			final int position = (run + 1) << 1;
+			final boolean joinsPrevious = run >= 0 && end(run) == index - 1;
+			final boolean joinsNext = position < runs.length && runs[position] == index + 1;
+			final char[] replacement;
+			if (joinsPrevious && joinsNext) {
+				replacement = new char[runs.length - 2];
+				System.arraycopy(runs, 0, replacement, 0, position - 1);
+				replacement[position - 1] = (char) (end(run + 1) - runs[position - 2]);
+				System.arraycopy(runs, position + 2, replacement, position, runs.length - position - 2);
+			} else if (joinsPrevious) {
+				replacement = runs.clone();
+				replacement[position - 1]++;
+			} else if (joinsNext) {
+				replacement = runs.clone();
+				replacement[position]--;
+				replacement[position + 1]++;
+			} else {
+				replacement = new char[runs.length + 2];
+				System.arraycopy(runs, 0, replacement, 0, position);
+				replacement[position] = (char) index;
+				System.arraycopy(runs, position, replacement, position + 2, runs.length - position);
+			}
+			return RunContainer.of(replacement, cardinality + 1);
+		}
+
+		@Override
+		Container remove(final int index) {
+			final int run = find(index);
+			if (run < 0 || index > end(run)) {
+				return this;
+			}
+			if (cardinality == 1) {
+				return null;
+			}
+			final int position = run << 1;
+			final int start = runs[position];
+			final int end = end(run);
+			final char[] replacement;
+			if (start == end) {
+				replacement = new char[runs.length - 2];
+				System.arraycopy(runs, 0, replacement, 0, position);
+				System.arraycopy(runs, position + 2, replacement, position, runs.length - position - 2);
+			} else if (index == start) {
+				replacement = runs.clone();
+				replacement[position]++;
+				replacement[position + 1]--;
+			} else if (index == end) {
+				replacement = runs.clone();
+				replacement[position + 1]--;
+			} else {
+				replacement = new char[runs.length + 2];
+				System.arraycopy(runs, 0, replacement, 0, position + 1);
+				replacement[position + 1] = (char) (index - start - 1);
+				replacement[position + 2] = (char) (index + 1);
+				replacement[position + 3] = (char) (end - index - 1);
+				System.arraycopy(runs, position + 2, replacement, position + 4, runs.length - position - 2);
+			}
+			return RunContainer.of(replacement, cardinality - 1);
+		}
+
+		@Override
+		void toWords(final long[] words) {
+			Arrays.fill(words, BitSet.DEAD);
+			for (int i = 0; i < runs.length; i += 2) {
+				final int from = runs[i];
+				final int to = from + runs[i + 1] + 1;
+				final int start = BitSet.divideSize(from);
+				final int end = BitSet.divideSize(to - 1);
+				final long startMask = BitSet.LIVE << from;
+				final long endMask = BitSet.LIVE >>> -to;
+				if (start == end) {
+					words[start] |= startMask & endMask;
+				} else {
+					words[start] |= startMask;
+					Arrays.fill(words, start + 1, end, BitSet.LIVE);
+					words[end] |= endMask;
+				}
+			}
+		}
+
+		@Override
+		int[] toArray(final int base) {
+			final int[] array = new int[cardinality];
+			int count = 0;
+			for (int i = 0; i < runs.length; i += 2) {
+				final int start = base + runs[i];
+				final int end = start + runs[i + 1];
+				for (int index = start; index <= end; index++) {
+					array[count++] = index;
+				}
+			}
+			return array;
+		}
+
+		@Override
+		Container copy() {
+			return this;
+		}
+
+	}
+
+}
@@ -0,0 +1,701 @@
+package com.shouldis.bitset;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Immutable, run-length encoded representation of a fixed number of bits, in
+ * the manner of EWAH compressed bitmaps. Consecutive words that are entirely
+ * {@link BitSet#DEAD} or entirely {@link BitSet#LIVE} are stored as a single
+ * count, while all other words are stored as-is, making sets consisting mostly
+ * of long runs far smaller than an {@link ImmutableBitSet} of the same
+ * {@link #size}.
+ * <p>
+ * The encoded words consist of markers, each followed by a number of literal
+ * words. A marker holds the state of a run of fill words in its lowest bit, the
+ * length of that run in the following {@link #RUN_BITS} bits, and the number of
+ * literal words following the run in its remaining bits.
+ * <p>
+ * {@link #and(RunLengthBitSet)}, {@link #or(RunLengthBitSet)} and
+ * {@link #xOr(RunLengthBitSet)} operate directly on the encoded words of both
+ * sets, processing entire runs at once, and {@link #live()} decodes the indices
+ * of <i>live</i> bits without expanding the encoded words. Hanging bits are
+ * always in the <i>dead</i> state.
+ * 
+ * @author Aaron Shouldis
+ * @see ImmutableBitSet
+ */
+public final class RunLengthBitSet implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The number of bits within a marker holding the length of its run.
+	 */
+	public static final int RUN_BITS = Integer.SIZE;
+
+	/**
+	 * Mask of the bits within a marker holding the length of its run, after
+	 * shifting.
+	 */
+	private static final long RUN_MASK = BitSet.LIVE >>> -RUN_BITS;
+
+	/**
+	 * The number of indices accessible by this {@link RunLengthBitSet}. Indices
+	 * <b>0</b> through <b>size -1</b> are accessible.
+	 */
+	public final int size;
+
+	/**
+	 * The number of words represented by this {@link RunLengthBitSet}. Equal to
+	 * ceiling({@link #size} / 64).
+	 */
+	public final int wordCount;
+
+	/**
+	 * The encoded markers and literal words.
+	 */
+	private final long[] buffer;
+
+	/**
+	 * The position of each marker within {@link #buffer}.
+	 */
+	private final int[] markers;
+
+	/**
+	 * The index of the first word represented by each marker.
+	 */
+	private final int[] starts;
+
+	/**
+	 * The number of <i>live</i> bits within this {@link RunLengthBitSet}.
+	 */
+	private final int population;
+
+	/**
+	 * Creates a {@link RunLengthBitSet} holding the same bits as the specified
+	 * {@link BitSet} <b>set</b>, with an identical {@link #size}. Hanging bits of
+	 * <b>set</b> are not included.
+	 * 
+	 * @param set the {@link BitSet} to encode.
+	 * @throws NullPointerException if <b>set</b> is null.
+	 */
+	public RunLengthBitSet(final BitSet set) {
+		this(set.size, RunLengthBitSet.encode(set));
+	}
+
+	/**
+	 * Internal, private constructor.
+	 * 
+	 * @param size   the number of indices represented.
+	 * @param buffer the encoded markers and literal words.
+	 */
+	private RunLengthBitSet(final int size, final long[] buffer) {
+		this.size = size;
+		this.wordCount = BitSet.countWords(size);
+		this.buffer = buffer;
+		int markerCount = 0;
+		for (int i = 0; i < buffer.length; i += RunLengthBitSet.literals(buffer[i]) + 1) {
+			markerCount++;
+		}
+		markers = new int[markerCount];
+		starts = new int[markerCount];
+		int population = 0;
+		int wordIndex = 0;
+		for (int i = 0, marker = 0; i < buffer.length; marker++) {
+			final long word = buffer[i];
+			final int run = RunLengthBitSet.run(word);
+			final int literals = RunLengthBitSet.literals(word);
+			markers[marker] = i;
+			starts[marker] = wordIndex;
+			if (RunLengthBitSet.fill(word) == BitSet.LIVE) {
+				population += BitSet.multiplySize(run);
+			}
+			for (int j = i + 1; j <= i + literals; j++) {
+				population += Long.bitCount(buffer[j]);
+			}
+			wordIndex += run + literals;
+			i += literals + 1;
+		}
+		this.population = population;
+	}
+
+	/**
+	 * Encodes the words of the specified {@link BitSet} <b>set</b>, clearing its
+	 * hanging bits.
+	 * 
+	 * @param set the {@link BitSet} to encode.
+	 * @return the encoded markers and literal words.
+	 */
+	private static long[] encode(final BitSet set) {
+		final Encoder encoder = new Encoder();
+		final int last = set.wordCount - 1;
+		for (int i = 0; i < last; i++) {
+			encoder.literal(set.getWord(i));
+		}
+		if (last >= 0) {
+			encoder.literal(set.getWord(last) & (BitSet.LIVE >>> -set.size));
+		}
+		return encoder.finish();
+	}
+
+	/**
+	 * Checks the current state of the bit at the specified <b>index</b>. The
+	 * marker representing the word containing <b>index</b> is found through a
+	 * binary search.
+	 * 
+	 * @param index the index of the bit to examine.
+	 * @return whether the bit at the specified <b>index</b> is in the <i>live</i>
+	 *         state.
+	 * @throws IndexOutOfBoundsException if <b>index</b> is negative or greater than
+	 *                                   or equal to {@link #size}.
+	 */
+	public boolean get(final int index) {
+		Objects.checkIndex(index, size);
+		final int wordIndex = BitSet.divideSize(index);
+		int marker = Arrays.binarySearch(starts, wordIndex);
+		if (marker < 0) {
+			marker = -(marker + 2);
+		}
+		final long word = buffer[markers[marker]];
+		final int offset = wordIndex - starts[marker] - RunLengthBitSet.run(word);
+		if (offset < 0) {
+			return RunLengthBitSet.fill(word) == BitSet.LIVE;
+		}
+		return (buffer[markers[marker] + 1 + offset] & BitSet.bitMask(index)) != BitSet.DEAD;
+	}
+
+	/**
+	 * Returns the number of <i>live</i> bits within this {@link RunLengthBitSet},
+	 * calculated once upon creation.
+	 * 
+	 * @return the number of <i>live</i> bits.
+	 */
+	public int population() {
+		return population;
+	}
+
+	/**
+	 * Calculates what percentage of bits in this {@link RunLengthBitSet} are in
+	 * the <i>live</i> state.
+	 * 
+	 * @return the percentage of <i>live</i> bits.
+	 */
+	public double density() {
+		return population / (double) size;
+	}
+
+	/**
+	 * Returns the number of words used to encode this {@link RunLengthBitSet}.
+	 * 
+	 * @return the length of the encoded words.
+	 */
+	public int encodedLength() {
+		return buffer.length;
+	}
+
+	/**
+	 * Creates an {@link IntStream} consisting of the indices of all <i>live</i>
+	 * bits within this {@link RunLengthBitSet} in ascending order, decoded
+	 * directly from the encoded words. Runs of <i>dead</i> words are skipped in
+	 * constant time.
+	 * 
+	 * @return an {@link IntStream} representation of the bit indices in the
+	 *         <i>live</i> state.
+	 */
+	public IntStream live() {
+		final int characteristics = Spliterator.DISTINCT | Spliterator.ORDERED | Spliterator.SORTED
+				| Spliterator.NONNULL | Spliterator.IMMUTABLE;
+		return StreamSupport.intStream(Spliterators.spliterator(new LiveIterator(), population, characteristics),
+				false);
+	}
+
+	/**
+	 * Creates a {@link RunLengthBitSet} representing the result of an {@code AND}
+	 * operation between this {@link RunLengthBitSet} and the specified <b>set</b>,
+	 * without decoding either.
+	 * 
+	 * @param set the other {@link RunLengthBitSet}.
+	 * @return the result of the {@code AND} operation.
+	 * @throws IllegalArgumentException if the sizes of both sets are not equal.
+	 * @throws NullPointerException     if <b>set</b> is null.
+	 */
+	public RunLengthBitSet and(final RunLengthBitSet set) {
+		return apply(set, WordBiFunction.AND);
+	}
+
+	/**
+	 * Creates a {@link RunLengthBitSet} representing the result of an {@code OR}
+	 * operation between this {@link RunLengthBitSet} and the specified <b>set</b>,
+	 * without decoding either.
+	 * 
+	 * @param set the other {@link RunLengthBitSet}.
+	 * @return the result of the {@code OR} operation.
+	 * @throws IllegalArgumentException if the sizes of both sets are not equal.
+	 * @throws NullPointerException     if <b>set</b> is null.
+	 */
+	public RunLengthBitSet or(final RunLengthBitSet set) {
+		return apply(set, WordBiFunction.OR);
+	}
+
+	/**
+	 * Creates a {@link RunLengthBitSet} representing the result of an {@code XOR}
+	 * operation between this {@link RunLengthBitSet} and the specified <b>set</b>,
+	 * without decoding either.
+	 * 
+	 * @param set the other {@link RunLengthBitSet}.
+	 * @return the result of the {@code XOR} operation.
+	 * @throws IllegalArgumentException if the sizes of both sets are not equal.
+	 * @throws NullPointerException     if <b>set</b> is null.
+	 */
+	public RunLengthBitSet xOr(final RunLengthBitSet set) {
+		return apply(set, WordBiFunction.XOR);
+	}
+
+	/**
+	 * Creates a {@link RunLengthBitSet} representing the result of the specified
+	 * <b>function</b> between the words of this {@link RunLengthBitSet} and those
+	 * of the specified <b>set</b>. Where both sets are within runs, the function is
+	 * applied once for the entire overlap; where one set is within a run whose
+	 * state makes the result constant, the literals of the other set are skipped.
+	 * 
+	 * @param set      the other {@link RunLengthBitSet}.
+	 * @param function the {@link WordBiFunction} to apply, which must map
+	 *                 {@link BitSet#DEAD} with {@link BitSet#DEAD} to
+	 *                 {@link BitSet#DEAD} to preserve hanging bits.
+	 * @return the result of <b>function</b>.
+	 * @throws IllegalArgumentException if the sizes of both sets are not equal.
+	 * @throws NullPointerException     if <b>set</b> or <b>function</b> are null.
+	 */
+	public RunLengthBitSet apply(final RunLengthBitSet set, final WordBiFunction function) {
+		if (set.size != size) {
+			throw new IllegalArgumentException(Integer.toString(set.size));
+		}
+		Objects.requireNonNull(function);
+		final Encoder encoder = new Encoder();
+		final Cursor first = new Cursor(buffer);
+		final Cursor second = new Cursor(set.buffer);
+		while (first.hasNext()) {
+			if (first.run > 0 && second.run > 0) {
+				final int count = Math.min(first.run, second.run);
+				encoder.fill(function.apply(first.fill, second.fill), count);
+				first.skipRun(count);
+				second.skipRun(count);
+			} else if (first.run > 0) {
+				RunLengthBitSet.apply(encoder, first, second, function, false);
+			} else if (second.run > 0) {
+				RunLengthBitSet.apply(encoder, second, first, function, true);
+			} else {
+				encoder.literal(function.apply(first.literal(), second.literal()));
+			}
+		}
+		return new RunLengthBitSet(size, encoder.finish());
+	}
+
+	/**
+	 * Applies the specified <b>function</b> between the run of <b>fill</b> and the
+	 * literals of <b>literals</b>, for as many words as they overlap.
+	 * 
+	 * @param encoder  the {@link Encoder} to append the result to.
+	 * @param fill     the {@link Cursor} positioned within a run.
+	 * @param literals the {@link Cursor} positioned within literals.
+	 * @param function the {@link WordBiFunction} to apply.
+	 * @param reversed whether <b>fill</b> supplies the second argument of
+	 *                 <b>function</b> rather than the first.
+	 */
+	private static void apply(final Encoder encoder, final Cursor fill, final Cursor literals,
+			final WordBiFunction function, final boolean reversed) {
+		final int count = Math.min(fill.run, literals.literals);
+		final long dead = reversed ? function.apply(BitSet.DEAD, fill.fill) : function.apply(fill.fill, BitSet.DEAD);
+		final long live = reversed ? function.apply(BitSet.LIVE, fill.fill) : function.apply(fill.fill, BitSet.LIVE);
+		if (dead == live) {
+			encoder.fill(dead, count);
+			literals.skipLiterals(count);
+		} else {
+			for (int i = 0; i < count; i++) {
+				final long word = literals.literal();
+				encoder.literal(reversed ? function.apply(word, fill.fill) : function.apply(fill.fill, word));
+			}
+		}
+		fill.skipRun(count);
+	}
+
+	/**
+	 * Creates a {@link BitSet} with an identical {@link #size}, holding the same
+	 * bits as this {@link RunLengthBitSet}.
+	 * 
+	 * @return the created {@link BitSet}.
+	 */
+	public BitSet toBitSet() {
+		final BitSet set = new BitSet(size);
+		final Cursor cursor = new Cursor(buffer);
+		int wordIndex = 0;
+		while (cursor.hasNext()) {
+			if (cursor.run > 0) {
+				final int count = cursor.run;
+				if (cursor.fill == BitSet.LIVE) {
+					for (int i = wordIndex; i < wordIndex + count; i++) {
+						set.fillWord(i);
+					}
+				}
+				wordIndex += count;
+				cursor.skipRun(count);
+			} else {
+				set.setWord(wordIndex++, cursor.literal());
+			}
+		}
+		return set;
+	}
+
+	/**
+	 * Extracts the state of the run from the specified <b>marker</b>.
+	 * 
+	 * @param marker the marker to decode.
+	 * @return {@link BitSet#LIVE} or {@link BitSet#DEAD}.
+	 */
+	private static long fill(final long marker) {
+		return -(marker & 1L);
+	}
+
+	/**
+	 * Extracts the length of the run from the specified <b>marker</b>.
+	 * 
+	 * @param marker the marker to decode.
+	 * @return the number of fill words in the run.
+	 */
+	private static int run(final long marker) {
+		return (int) ((marker >>> 1) & RUN_MASK);
+	}
+
+	/**
+	 * Extracts the number of literal words following the specified
+	 * <b>marker</b>.
+	 * 
+	 * @param marker the marker to decode.
+	 * @return the number of literal words.
+	 */
+	private static int literals(final long marker) {
+		return (int) (marker >>> (RUN_BITS + 1));
+	}
+
+	/**
+	 * Creates a marker from its parts.
+	 * 
+	 * @param fill     the state of the run, {@link BitSet#LIVE} or
+	 *                 {@link BitSet#DEAD}.
+	 * @param run      the number of fill words in the run.
+	 * @param literals the number of literal words following the run.
+	 * @return the created marker.
+	 */
+	private static long marker(final long fill, final int run, final int literals) {
+		return (fill & 1L) | ((long) run << 1) | ((long) literals << (RUN_BITS + 1));
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(buffer) * 31 + size;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (obj == null) {
+			return false;
+		}
+		if (obj == this) {
+			return true;
+		}
+		return obj instanceof RunLengthBitSet && size == ((RunLengthBitSet) obj).size
+				&& Arrays.equals(buffer, ((RunLengthBitSet) obj).buffer);
+	}
+
+	/**
+	 * Builds encoded words from a sequence of words, merging consecutive fill words
+	 * into runs. Encoding is deterministic, so equal sequences of words produce
+	 * equal encodings.
+	 */
+	private static final class Encoder {
+
+		/**
+		 * The markers and literal words appended so far.
+		 */
+		private long[] buffer = new long[8];
+
+		/**
+		 * The number of valid words within {@link #buffer}.
+		 */
+		private int length;
+
+		/**
+		 * The position of the current marker within {@link #buffer}, or -1 before
+		 * the first word is appended.
+		 */
+		private int marker = -1;
+
+		/**
+		 * The state of the run of the current marker.
+		 */
+		private long fill;
+
+		/**
+		 * The length of the run of the current marker.
+		 */
+		private int run;
+
+		/**
+		 * The number of literal words following the current marker.
+		 */
+		private int literals;
+
+		/**
+		 * Appends <b>count</b> words of the specified <b>fill</b>.
+		 * 
+		 * @param fill  {@link BitSet#LIVE} or {@link BitSet#DEAD}.
+		 * @param count the number of words to append.
+		 */
+		void fill(final long fill, final int count) {
+			if (count == 0) {
+				return;
+			}
+			if (fill != BitSet.DEAD && fill != BitSet.LIVE) {
+				for (int i = 0; i < count; i++) {
+					literal(fill);
+				}
+				return;
+			}
+			if (marker < 0 || literals > 0 || (run > 0 && this.fill != fill)) {
+				next();
+			}
+			this.fill = fill;
+			run += count;
+		}
+
+		/**
+		 * Appends the specified <b>word</b>, merging it into a run if it is
+		 * {@link BitSet#LIVE} or {@link BitSet#DEAD}.
+		 * 
+		 * @param word the word to append.
+		 */
+		void literal(final long word) {
+			if (word == BitSet.DEAD || word == BitSet.LIVE) {
+				fill(word, 1);
+				return;
+			}
+			if (marker < 0) {
+				next();
+			}
+			append(word);
+			literals++;
+		}
+
+		/**
+		 * Completes the current marker, and begins a new one.
+		 */
+		private void next() {
+			close();
+			marker = length;
+			append(BitSet.DEAD);
+			fill = BitSet.DEAD;
+			run = 0;
+			literals = 0;
+		}
+
+		/**
+		 * Writes the current marker into {@link #buffer}.
+		 */
+		private void close() {
+			if (marker >= 0) {
+				buffer[marker] = RunLengthBitSet.marker(fill, run, literals);
+			}
+		}
+
+		/**
+		 * Appends the specified <b>word</b> to {@link #buffer}, growing it if
+		 * needed.
+		 * 
+		 * @param word the word to append.
+		 */
+		private void append(final long word) {
+			if (length == buffer.length) {
+				buffer = Arrays.copyOf(buffer, length << 1);
+			}
+			buffer[length++] = word;
+		}
+
+		/**
+		 * Completes the encoding.
+		 * 
+		 * @return the encoded words, trimmed to their length.
+		 */
+		long[] finish() {
+			close();
+			return Arrays.copyOf(buffer, length);
+		}
+
+	}
+
+	/**
+	 * Reads the words represented by encoded words in sequence, allowing entire
+	 * runs to be consumed at once.
+	 */
+	private static final class Cursor {
+
+		/**
+		 * The encoded words being read.
+		 */
+		private final long[] buffer;
+
+		/**
+		 * The position within {@link #buffer} of the next word to read.
+		 */
+		private int position;
+
+		/**
+		 * The state of the current run.
+		 */
+		long fill;
+
+		/**
+		 * The remaining length of the current run.
+		 */
+		int run;
+
+		/**
+		 * The remaining number of literal words following the current run.
+		 */
+		int literals;
+
+		/**
+		 * Creates a {@link Cursor} positioned at the first word of <b>buffer</b>.
+		 * 
+		 * @param buffer the encoded words to read.
+		 */
+		Cursor(final long[] buffer) {
+			this.buffer = buffer;
+			advance();
+		}
+
+		/**
+		 * Checks whether any words remain.
+		 * 
+		 * @return whether any words remain.
+		 */
+		boolean hasNext() {
+			return run > 0 || literals > 0;
+		}
+
+		/**
+		 * Consumes <b>count</b> words of the current run.
+		 * 
+		 * @param count the number of fill words to consume.
+		 */
+		void skipRun(final int count) {
+			run -= count;
+			advance();
+		}
+
+		/**
+		 * Consumes <b>count</b> literal words.
+		 * 
+		 * @param count the number of literal words to consume.
+		 */
+		void skipLiterals(final int count) {
+			position += count;
+			literals -= count;
+			advance();
+		}
+
+		/**
+		 * Consumes and returns the next literal word.
+		 * 
+		 * @return the next literal word.
+		 */
+		long literal() {
+			final long word = buffer[position++];
+			literals--;
+			advance();
+			return word;
+		}
+
+		/**
+		 * Reads markers until positioned on a remaining word, or the end of
+		 * {@link #buffer}.
+		 */
+		private void advance() {
+			while (run == 0 && literals == 0 && position < buffer.length) {
+				final long marker = buffer[position++];
+				fill = RunLengthBitSet.fill(marker);
+				run = RunLengthBitSet.run(marker);
+				literals = RunLengthBitSet.literals(marker);
+			}
+		}
+
+	}
+
+	/**
+	 * Iterates the indices of all <i>live</i> bits, decoding them directly from
+	 * the encoded words.
+	 */
+	private final class LiveIterator implements PrimitiveIterator.OfInt {
+
+		/**
+		 * The {@link Cursor} reading the encoded words.
+		 */
+		private final Cursor cursor = new Cursor(buffer);
+
+		/**
+		 * The index of the next word to be read from {@link #cursor}.
+		 */
+		private int wordIndex;
+
+		/**
+		 * The remaining <i>live</i> bits of the current word.
+		 */
+		private long word;
+
+		/**
+		 * The index of the first bit of the current word.
+		 */
+		private int base;
+
+		@Override
+		public boolean hasNext() {
+			while (word == BitSet.DEAD) {
+				if (!cursor.hasNext()) {
+					return false;
+				}
+				if (cursor.run > 0 && cursor.fill == BitSet.DEAD) {
+					wordIndex += cursor.run;
+					cursor.skipRun(cursor.run);
+					continue;
+				}
+				base = BitSet.multiplySize(wordIndex++);
+				if (cursor.run > 0) {
+					word = BitSet.LIVE;
+					cursor.skipRun(1);
+				} else {
+					word = cursor.literal();
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int nextInt() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			final int index = base + Long.numberOfTrailingZeros(word);
+			word &= word - 1;
+			return index;
+		}
+
+	}
+
+}
@@ -0,0 +1,153 @@
+package com.shouldis.bitset;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Lock-free allocator of integer slots in the range [0, {@link #set}.size),
+ * each represented by a bit of a {@link ConcurrentBitSet} which is
+ * <i>live</i> while the slot is allocated. Slots are claimed with a single
+ * {@link ConcurrentBitSet#compareAndSetWord(int, long, long)} operation per
+ * attempt.
+ * <p>
+ * Rather than every thread scanning from the first word, and racing for the
+ * same <i>dead</i> bits, each thread begins searching at its own hint. A
+ * thread's hint starts at a random word, and follows the word its last slot
+ * was claimed from, so threads spread across the {@link ConcurrentBitSet} and
+ * rarely contend for the same word.
+ * 
+ * @author Aaron Shouldis
+ * @see ConcurrentBitSet
+ */
+public final class SlotAllocator {
+
+	/**
+	 * The {@link ConcurrentBitSet} holding a <i>live</i> bit for each allocated
+	 * slot.
+	 */
+	public final ConcurrentBitSet set;
+
+	/**
+	 * The index of the word each thread will begin searching from.
+	 */
+	private final ThreadLocal<int[]> hints;
+
+	/**
+	 * Creates a {@link SlotAllocator} of the specified number of slots, all
+	 * initially free.
+	 * 
+	 * @param size the number of slots.
+	 * @throws IllegalArgumentException if <b>size</b> is less than 0.
+	 */
+	public SlotAllocator(final int size) {
+		this(new ConcurrentBitSet(size));
+	}
+
+	/**
+	 * Creates a {@link SlotAllocator} of the slots represented by the specified
+	 * <b>set</b>, in which <i>live</i> bits are considered already allocated.
+	 * 
+	 * @param set the {@link ConcurrentBitSet} to allocate slots from.
+	 * @throws NullPointerException if <b>set</b> is null.
+	 */
+	public SlotAllocator(final ConcurrentBitSet set) {
+		this.set = Objects.requireNonNull(set);
+		hints = ThreadLocal.withInitial(() -> new int[] { set.wordCount > 0
+				? ThreadLocalRandom.current().nextInt(set.wordCount) : 0 });
+	}
+
+	/**
+	 * Allocates a single free slot, changing its bit to the <i>live</i> state.
+	 * 
+	 * @return the allocated slot, or -1 if no free slot was found after searching
+	 *         every word once.
+	 */
+	public int allocate() {
+		final int[] hint = hints.get();
+		int wordIndex = hint[0];
+		for (int searched = 0; searched < set.wordCount; searched++) {
+			final long valid = validBits(wordIndex);
+			long word = set.getWord(wordIndex);
+			long free;
+			while ((free = ~word & valid) != BitSet.DEAD) {
+				final long mask = Long.lowestOneBit(free);
+				if (set.compareAndSetWord(wordIndex, word, word | mask)) {
+					hint[0] = wordIndex;
+					return BitSet.multiplySize(wordIndex) + Long.numberOfTrailingZeros(mask);
+				}
+				word = set.getWord(wordIndex);
+			}
+			wordIndex = wordIndex + 1 == set.wordCount ? 0 : wordIndex + 1;
+		}
+		return -1;
+	}
+
+	/**
+	 * Allocates up to <b>n</b> free slots from a single word, changing their bits
+	 * to the <i>live</i> state with a single atomic operation. Fewer than
+	 * <b>n</b> slots are allocated if the first word found with free slots has
+	 * fewer than <b>n</b>.
+	 * 
+	 * @param n the maximum number of slots to allocate.
+	 * @return the allocated slots in ascending order, which is empty if no free
+	 *         slot was found after searching every word once.
+	 * @throws IllegalArgumentException if <b>n</b> is less than 1.
+	 */
+	public int[] allocate(final int n) {
+		if (n < 1) {
+			throw new IllegalArgumentException(Integer.toString(n));
+		}
+		final int[] hint = hints.get();
+		int wordIndex = hint[0];
+		for (int searched = 0; searched < set.wordCount; searched++) {
+			final long valid = validBits(wordIndex);
+			long word = set.getWord(wordIndex);
+			long free;
+			while ((free = ~word & valid) != BitSet.DEAD) {
+				long claimed = free;
+				for (int excess = Long.bitCount(free) - n; excess > 0; excess--) {
+					claimed &= ~Long.highestOneBit(claimed);
+				}
+				if (set.compareAndSetWord(wordIndex, word, word | claimed)) {
+					hint[0] = wordIndex;
+					final int[] slots = new int[Long.bitCount(claimed)];
+					final int offset = BitSet.multiplySize(wordIndex);
+					for (int i = 0; i < slots.length; i++) {
+						slots[i] = offset + Long.numberOfTrailingZeros(claimed);
+						claimed &= claimed - 1L;
+					}
+					return slots;
+				}
+				word = set.getWord(wordIndex);
+			}
+			wordIndex = wordIndex + 1 == set.wordCount ? 0 : wordIndex + 1;
+		}
+		return new int[0];
+	}
+
+	/**
+	 * Frees the specified <b>slot</b>, changing its bit to the <i>dead</i> state
+	 * so it can be allocated again.
+	 * 
+	 * @param slot the slot to free.
+	 * @return whether or not the <b>slot</b> was allocated.
+	 * @throws ArrayIndexOutOfBoundsException if <b>slot</b> is negative, or
+	 *                                        greater than or equal to
+	 *                                        {@link #set}.size.
+	 */
+	public boolean free(final int slot) {
+		return set.remove(slot);
+	}
+
+	/**
+	 * Returns a mask of the bits within the word at the specified
+	 * <b>wordIndex</b> which represent slots, excluding hanging bits.
+	 * 
+	 * @param wordIndex the index of the word.
+	 * @return the mask of bits representing slots.
+	 */
+	private long validBits(final int wordIndex) {
+		return wordIndex == set.wordCount - 1 ? BitSet.LIVE >>> -set.size : BitSet.LIVE;
+	}
+
+}
@@ -0,0 +1,185 @@
+package com.shouldis.bitset;
+
+import java.nio.LongBuffer;
+
+/**
+ * Implementation of {@link ConcurrentBitSet} which arranges its words to
+ * prevent false sharing between threads modifying different regions of the
+ * set. Within a {@link BitSet}, 8 consecutive words share a 64-byte cache line,
+ * so threads modifying neighboring ranges contend for the lines at the
+ * boundaries between them even though their operations never collide.
+ * <p>
+ * The words are divided into contiguous stripes of {@link #stripeSize}
+ * indices, each holding a power of 2 number of words, and a full cache line of
+ * padding is placed before each stripe. Threads modifying different stripes
+ * therefore never modify the same cache line, so work divided between threads
+ * along multiples of {@link #stripeSize} is free of false sharing. By default,
+ * each stripe holds {@link #DEFAULT_STRIPE_WORDS} words, or 4096 indices, for
+ * which the padding costs an eighth of the memory of the words themselves.
+ * Smaller stripes isolate finer divisions of work at the cost of more padding,
+ * down to {@link #MIN_STRIPE_WORDS} words, where the padding costs half.
+ * <p>
+ * The arrangement is hidden behind {@link #index(int)}, so every operation of
+ * {@link ConcurrentBitSet}, including {@link #tracked} populations,
+ * {@link #consistent} reads and claims, behaves as it does without padding,
+ * and ordered iteration sees the words in their usual order.
+ * 
+ * @author Aaron Shouldis
+ * @see ConcurrentBitSet
+ */
+public final class StripedBitSet extends ConcurrentBitSet {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The default number of words within each stripe, used by
+	 * {@link #StripedBitSet(int)}.
+	 */
+	public static final int DEFAULT_STRIPE_WORDS = 64;
+
+	/**
+	 * The smallest number of words allowed within each stripe.
+	 */
+	public static final int MIN_STRIPE_WORDS = 16;
+
+	/**
+	 * log<sub>2</sub> of the number of words occupying a single cache line.
+	 */
+	private static final int LOG_2_LINE_WORDS = 3;
+
+	/**
+	 * The number of indices within each stripe, limited to
+	 * {@link Integer#MAX_VALUE}.
+	 */
+	public final int stripeSize;
+
+	/**
+	 * log<sub>2</sub> of the number of words within each stripe.
+	 */
+	private final int logStripeWords;
+
+	/**
+	 * Creates a {@link StripedBitSet} with the specified <b>size</b>, holding
+	 * {@link #DEFAULT_STRIPE_WORDS} words within each stripe.
+	 * 
+	 * @param size the number of indices that this {@link StripedBitSet} will hold.
+	 * @throws IllegalArgumentException if <b>size</b> is less than 0.
+	 * @see ConcurrentBitSet#ConcurrentBitSet(int)
+	 */
+	public StripedBitSet(final int size) {
+		this(size, DEFAULT_STRIPE_WORDS);
+	}
+
+	/**
+	 * Creates a {@link StripedBitSet} with the specified <b>size</b>, holding
+	 * <b>stripeWords</b> words within each stripe.
+	 * 
+	 * @param size        the number of indices that this {@link StripedBitSet}
+	 *                    will hold.
+	 * @param stripeWords the number of words within each stripe.
+	 * @throws IllegalArgumentException if <b>size</b> is less than 0, or if
+	 *                                  <b>stripeWords</b> is not a power of 2
+	 *                                  at least {@link #MIN_STRIPE_WORDS}.
+	 */
+	public StripedBitSet(final int size, final int stripeWords) {
+		this(size, false, false, stripeWords);
+	}
+
+	/**
+	 * Creates a {@link StripedBitSet} with the specified <b>size</b>, holding
+	 * <b>stripeWords</b> words within each stripe, in the manner of
+	 * {@link ConcurrentBitSet#ConcurrentBitSet(int, boolean, boolean)}.
+	 * 
+	 * @param size        the number of indices that this {@link StripedBitSet}
+	 *                    will hold.
+	 * @param tracked     whether the population should be maintained as words
+	 *                    are modified.
+	 * @param consistent  whether modifications should be counted to allow
+	 *                    consistent multi-word reads.
+	 * @param stripeWords the number of words within each stripe.
+	 * @throws IllegalArgumentException if <b>size</b> is less than 0, or if
+	 *                                  <b>stripeWords</b> is not a power of 2
+	 *                                  at least {@link #MIN_STRIPE_WORDS}.
+	 */
+	public StripedBitSet(final int size, final boolean tracked, final boolean consistent, final int stripeWords) {
+		super(size, tracked, consistent, new long[StripedBitSet.length(size, StripedBitSet.log(stripeWords))]);
+		logStripeWords = StripedBitSet.log(stripeWords);
+		stripeSize = (int) Math.min(Integer.MAX_VALUE, (long) stripeWords * Long.SIZE);
+	}
+
+	/**
+	 * Creates a {@link StripedBitSet} which is a clone of the specified
+	 * <b>set</b>, holding {@link #DEFAULT_STRIPE_WORDS} words within each stripe.
+	 * 
+	 * @param set the {@link BitSet} to copy.
+	 * @throws NullPointerException if <b>set</b> is null.
+	 * @see BitSet#BitSet(BitSet)
+	 */
+	public StripedBitSet(final BitSet set) {
+		this(set.size);
+		copy(set);
+	}
+
+	/**
+	 * Calculates log<sub>2</sub> of the specified number of <b>stripeWords</b>.
+	 * 
+	 * @param stripeWords the number of words within each stripe.
+	 * @return log<sub>2</sub> of <b>stripeWords</b>.
+	 * @throws IllegalArgumentException if <b>stripeWords</b> is not a power of 2
+	 *                                  at least {@link #MIN_STRIPE_WORDS}.
+	 */
+	private static int log(final int stripeWords) {
+		if (stripeWords < MIN_STRIPE_WORDS || Integer.bitCount(stripeWords) != 1) {
+			throw new IllegalArgumentException(Integer.toString(stripeWords));
+		}
+		return Integer.numberOfTrailingZeros(stripeWords);
+	}
+
+	/**
+	 * Calculates the length of the array holding the words of a
+	 * {@link StripedBitSet} of the specified <b>size</b>, including a cache line
+	 * of padding before every stripe.
+	 * 
+	 * @param size           the number of indices held.
+	 * @param logStripeWords log<sub>2</sub> of the number of words per stripe.
+	 * @return the length of {@link #words}.
+	 * @throws IllegalArgumentException if <b>size</b> is less than 0.
+	 */
+	private static int length(final int size, final int logStripeWords) {
+		return StripedBitSet.index(BitSet.countWords(size) - 1, logStripeWords) + 1;
+	}
+
+	/**
+	 * Calculates the index within {@link #words} at which the word with the
+	 * specified <b>wordIndex</b> is stored, preceded by one cache line of padding
+	 * for each stripe up to and including its own. As stripes hold at least
+	 * {@link #MIN_STRIPE_WORDS} words, negative indices are mapped either below 0
+	 * or beyond the largest possible array, while indices past the last word are
+	 * mapped past the end of the array.
+	 * 
+	 * @param wordIndex      the index of the word in the usual order.
+	 * @param logStripeWords log<sub>2</sub> of the number of words per stripe.
+	 * @return the index of the word within {@link #words}.
+	 */
+	private static int index(final int wordIndex, final int logStripeWords) {
+		return wordIndex + (((wordIndex >> logStripeWords) + 1) << LOG_2_LINE_WORDS);
+	}
+
+	@Override
+	protected int index(final int wordIndex) {
+		return StripedBitSet.index(wordIndex, logStripeWords);
+	}
+
+	/**
+	 * Creates a read-only {@link LongBuffer} holding a copy of the words of this
+	 * {@link StripedBitSet} in their usual order, as they are not stored
+	 * contiguously.
+	 * 
+	 * @return a read-only copy of the words of this {@link StripedBitSet}.
+	 */
+	@Override
+	public LongBuffer asLongBuffer() {
+		return LongBuffer.wrap(toLongArray()).asReadOnlyBuffer();
+	}
+
+}
@@ -5,12 +5,14 @@ import java.util.Objects;
 
 import com.shouldis.bitset.BitSet;
 import com.shouldis.bitset.ConcurrentBitSet;
+import com.shouldis.bitset.DirectBitSet;
 import com.shouldis.bitset.ImmutableBitSet;
 import com.shouldis.bitset.InlineBitSet;
 
 /**
  * 64 by 64 bit matrix backed by either a {@link BitSet},
- * {@link ConcurrentBitSet} or {@link ImmutableBitSet}.
+ * {@link ConcurrentBitSet}, {@link ImmutableBitSet}, {@link InlineBitSet} or
+ * {@link DirectBitSet}.
  * 
  * @author Aaron Shouldis
  */
@@ -122,6 +124,29 @@ public final class Matrix implements Serializable {
 		return new Matrix(new InlineBitSet(matrix.bits()));
 	}
 
+	/**
+	 * Creates a {@link Matrix} backed by a {@link DirectBitSet} with size equal to
+	 * {@link #MATRIX_SIZE}. All bits are initialized to the <i>dead</I> state.
+	 * 
+	 * @return the created {@link Matrix}.
+	 */
+	public static Matrix createDirect() {
+		return new Matrix(new DirectBitSet(MATRIX_SIZE));
+	}
+
+	/**
+	 * Creates a {@link Matrix} backed by a {@link DirectBitSet} with size equal to
+	 * {@link #MATRIX_SIZE}. All bits copy the state of the bits in the specified
+	 * {@link Matrix} <b>matrix</b>.
+	 * 
+	 * @param matrix the {@link Matrix} to copy.
+	 * 
+	 * @return the created {@link Matrix} copy of <b>matrix</b>.
+	 */
+	public static Matrix createDirect(final Matrix matrix) {
+		return new Matrix(new DirectBitSet(matrix.bits()));
+	}
+
 	/**
 	 * Resolves the x-coordinate corresponding to the specified <b>index</b>. If the
 	 * index is out of the [0, {@link #MATRIX_SIZE}), the result is undefined.
@@ -4,6 +4,7 @@ import java.util.Objects;
 
 import com.shouldis.bitset.BitSet;
 import com.shouldis.bitset.ConcurrentBitSet;
+import com.shouldis.bitset.DirectBitSet;
 import com.shouldis.bitset.ImmutableBitSet;
 import com.shouldis.bitset.InlineBitSet;
 import com.shouldis.bitset.WordFunction;
@@ -49,6 +50,12 @@ public interface MatrixFunction {
 	 */
 	public static final MatrixFunction INLINE_COPY = Matrix::createInline;
 
+	/**
+	 * {@link MatrixFunction} that returns a copy of the specified {@link Matrix}
+	 * backed by a {@link DirectBitSet} using {@link Matrix#createDirect(Matrix)}.
+	 */
+	public static final MatrixFunction DIRECT_COPY = Matrix::createDirect;
+
 	/**
 	 * {@link MatrixFunction} that performs a transpose operation on the specified
 	 * {@link Matrix}.
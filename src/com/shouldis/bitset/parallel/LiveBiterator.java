@@ -5,12 +5,16 @@ import java.util.Spliterator;
 import java.util.function.IntConsumer;
 
 import com.shouldis.bitset.BitSet;
+import com.shouldis.bitset.IndexedBitSet;
 
 /**
  * Implementation of {@link Biterator} used to stream the indices of <i>live</i>
  * bits within a {@link BitSet}, splitting at appropriate indices to manipulate
  * a {@link BitSet} in parallel. Words are cached as they are encountered, so
- * any modifications after iteration begins may not be included.
+ * any modifications after iteration begins may not be included. Once a cached
+ * word is exhausted, words without <i>live</i> bits are skipped through
+ * {@link BitSet#nextLive(int)}, which implementations such as
+ * {@link IndexedBitSet} override to skip them without examining each word.
  * 
  * @author Aaron Shouldis
  * @see Biterator
@@ -65,22 +69,11 @@ public final class LiveBiterator extends Biterator {
 	 *         found.
 	 */
 	private int next(final int index) {
-		int wordIndex = BitSet.divideSize(index);
-		final int lastWordIndex = BitSet.divideSize(end - 1);
 		if (index >= end) {
 			return end;
 		}
-		long word = set.getWord(wordIndex) & (BitSet.LIVE << index);
-		if (word != BitSet.DEAD) {
-			return nextLiveBit(word, wordIndex);
-		}
-		while (++wordIndex <= lastWordIndex) {
-			word = set.getWord(wordIndex);
-			if (word != BitSet.DEAD) {
-				return nextLiveBit(word, wordIndex);
-			}
-		}
-		return end;
+		final int next = set.nextLive(index);
+		return next < 0 || next >= end ? end : next;
 	}
 
 	@Override
@@ -95,26 +88,17 @@ public final class LiveBiterator extends Biterator {
 
 	@Override
 	public void forEachRemaining(final IntConsumer action) {
-		position = next(position);
-		if (position >= end) {
-			position = end;
-			return;
-		}
-		int wordIndex = BitSet.divideSize(position);
 		final int lastWordIndex = BitSet.divideSize(end - 1);
-		long word = set.getWord(wordIndex) & (BitSet.LIVE << position);
-		do {
-			action.accept(position);
-			word ^= Long.lowestOneBit(word);
-			while (word == BitSet.DEAD) {
-				if (wordIndex == lastWordIndex) {
-					position = end;
-					return;
-				}
-				word = set.getWord(++wordIndex);
+		position = next(position);
+		while (position < end) {
+			final int wordIndex = BitSet.divideSize(position);
+			long word = set.getWord(wordIndex) & (BitSet.LIVE << position);
+			while (word != BitSet.DEAD && (position = nextLiveBit(word, wordIndex)) < end) {
+				action.accept(position);
+				word ^= Long.lowestOneBit(word);
 			}
-			position = nextLiveBit(word, wordIndex);
-		} while (position < end);
+			position = wordIndex == lastWordIndex ? end : next(BitSet.multiplySize(wordIndex + 1));
+		}
 	}
 
 	@Override
@@ -0,0 +1,196 @@
+package com.shouldis.bitset.parallel;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+import com.shouldis.bitset.BitSet;
+import com.shouldis.bitset.LongBitSet;
+
+/**
+ * Implementation of {@link Spliterator.OfLong} used to stream the indices of
+ * <i>live</i> bits within a {@link LongBitSet}, the long-indexed counterpart to
+ * {@link LiveBiterator}. Splits are made at the boundaries of the segments of
+ * the {@link LongBitSet} where possible, and otherwise at word boundaries, such
+ * that the indices produced can be manipulated in parallel without entering
+ * race conditions on the underlying words. Words are cached as they are
+ * encountered, so any modifications after iteration begins may not be
+ * included.
+ * 
+ * @author Aaron Shouldis
+ * @see LiveBiterator
+ */
+public final class LongLiveBiterator implements Spliterator.OfLong {
+
+	/**
+	 * The {@link LongBitSet} that the <i>live</i> bit indices will be calculated
+	 * from.
+	 */
+	private final LongBitSet set;
+
+	/**
+	 * The next index this {@link LongLiveBiterator} will produce.
+	 */
+	private long position;
+
+	/**
+	 * The boundary index that this {@link LongLiveBiterator} will stop upon
+	 * reaching.
+	 */
+	private final long end;
+
+	/**
+	 * Creates a {@link LongLiveBiterator} that will cover all <i>live</i> bits
+	 * within <b>set</b> in the specified range [<b>position</b>, <b>end</b>).
+	 * 
+	 * @param set      The {@link LongBitSet} that the <i>live</i> bit indices will
+	 *                 be calculated from.
+	 * @param position (inclusive) the first index to include.
+	 * @param end      (exclusive) the index after the last index to include.
+	 * @throws NullPointerException      if <b>set</b> is null.
+	 * @throws IndexOutOfBoundsException if <b>position</b> is greater than
+	 *                                   <b>end</b>, or less than 0.
+	 * @throws IndexOutOfBoundsException if <b>end</b> is greater than
+	 *                                   <b>set</b>.size.
+	 */
+	public LongLiveBiterator(final LongBitSet set, final long position, final long end) {
+		this.set = set;
+		this.position = position;
+		this.end = end;
+		Objects.checkFromToIndex(position, end, set.size);
+	}
+
+	/**
+	 * Creates a {@link LongLiveBiterator} that will cover all <i>live</i> bits
+	 * within the specified {@link LongBitSet} <b>set</b>.
+	 * 
+	 * @param set The {@link LongBitSet} that the <i>live</i> bit indices will be
+	 *            calculated from.
+	 * @throws NullPointerException if <b>set</b> is null.
+	 */
+	public LongLiveBiterator(final LongBitSet set) {
+		this(set, 0L, set.size);
+	}
+
+	/**
+	 * Returns a stream operating off of this {@link LongLiveBiterator}. Defaulting
+	 * to serial, {@link LongStream#parallel()} may be called to safely process the
+	 * indices produced in parallel.
+	 * 
+	 * @return a stream representation of this {@link LongLiveBiterator}.
+	 */
+	public LongStream stream() {
+		return StreamSupport.longStream(this, false);
+	}
+
+	/**
+	 * Calculates the index of the next <i>live</i> bit after the specified
+	 * <b>index</b>, including that <b>index</b>. If no <i>live</i> bits are found
+	 * before {@link #end}, {@link #end} is returned.
+	 * 
+	 * @param index (inclusive) the first index to check.
+	 * @return the index of the next <i>live</i> bit, or {@link #end} if none were
+	 *         found.
+	 */
+	private long next(final long index) {
+		if (index >= end) {
+			return end;
+		}
+		long wordIndex = LongBitSet.divideSize(index);
+		final long lastWordIndex = LongBitSet.divideSize(end - 1);
+		long word = set.getWord(wordIndex) & (BitSet.LIVE << index);
+		while (word == BitSet.DEAD) {
+			if (++wordIndex > lastWordIndex) {
+				return end;
+			}
+			word = set.getWord(wordIndex);
+		}
+		return nextLiveBit(word, wordIndex);
+	}
+
+	/**
+	 * Calculates the index of the next <i>live</i> bit within a specified
+	 * <b>word</b> that is at the specified <b>wordIndex</b>.
+	 * 
+	 * @param word      the long word to be checked for a <i>live</i> bit.
+	 * @param wordIndex the index of the word.
+	 * @return the index of the next <i>live</i> bit within the specified word, or
+	 *         {@link #end} if it is outside of this {@link LongLiveBiterator}.
+	 */
+	private long nextLiveBit(final long word, final long wordIndex) {
+		final long index = LongBitSet.multiplySize(wordIndex) + Long.numberOfTrailingZeros(word);
+		return index < end ? index : end;
+	}
+
+	/**
+	 * Calculates an appropriate place to split this {@link LongLiveBiterator}. If
+	 * the remaining range spans more than one segment, the segment boundary
+	 * closest to the middle is chosen; otherwise the middle is rounded down to a
+	 * word boundary.
+	 * 
+	 * @return an appropriate place to split this {@link LongLiveBiterator}.
+	 */
+	private long splitIndex() {
+		final long middle = (position & end) + ((position ^ end) >>> 1);
+		final long segmentMiddle = ((middle + LongBitSet.SEGMENT_SIZE / 2) / LongBitSet.SEGMENT_SIZE) * LongBitSet.SEGMENT_SIZE;
+		if (segmentMiddle > position && segmentMiddle < end) {
+			return segmentMiddle;
+		}
+		return middle - BitSet.modSize((int) middle);
+	}
+
+	@Override
+	public boolean tryAdvance(final LongConsumer action) {
+		position = next(position);
+		if (position < end) {
+			action.accept(position++);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void forEachRemaining(final LongConsumer action) {
+		position = next(position);
+		if (position >= end) {
+			position = end;
+			return;
+		}
+		long wordIndex = LongBitSet.divideSize(position);
+		final long lastWordIndex = LongBitSet.divideSize(end - 1);
+		long word = set.getWord(wordIndex) & (BitSet.LIVE << position);
+		do {
+			action.accept(position);
+			word ^= Long.lowestOneBit(word);
+			while (word == BitSet.DEAD) {
+				if (wordIndex == lastWordIndex) {
+					position = end;
+					return;
+				}
+				word = set.getWord(++wordIndex);
+			}
+			position = nextLiveBit(word, wordIndex);
+		} while (position < end);
+	}
+
+	@Override
+	public Spliterator.OfLong trySplit() {
+		if (estimateSize() < Biterator.THRESHOLD) {
+			return null;
+		}
+		return new LongLiveBiterator(set, position, position = splitIndex());
+	}
+
+	@Override
+	public int characteristics() {
+		return DISTINCT | ORDERED | NONNULL | IMMUTABLE;
+	}
+
+	@Override
+	public long estimateSize() {
+		return end - position;
+	}
+
+}